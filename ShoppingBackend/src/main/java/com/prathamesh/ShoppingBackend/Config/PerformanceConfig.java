@@ -1,33 +1,88 @@
 package com.prathamesh.ShoppingBackend.Config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prathamesh.ShoppingBackend.repository.DealsRepo;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class PerformanceConfig {
 
+    private static final List<String> CACHE_NAMES = List.of(
+            "products",
+            "users",
+            "orders",
+            "deals",
+            "activeDeals",
+            "idempotency"
+    );
+
+    private static final String DEFAULT_SPEC = "maximumSize=1000,expireAfterWrite=10m";
+
+    /**
+     * Caffeine caches configured per name from {@code app.cache.specs.<name>} (Caffeine spec syntax),
+     * falling back to {@code app.cache.default-spec}. Statistics are always recorded so the caches
+     * show up under the actuator {@code cache.*} metrics.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-            "products", 
-            "users", 
-            "orders", 
-            "deals", 
-            "activeDeals"
-        ));
+    public CacheManager cacheManager(Environment environment, DealsRepo dealsRepo) {
+        Binder binder = Binder.get(environment);
+        String defaultSpec = binder.bind("app.cache.default-spec", String.class).orElse(DEFAULT_SPEC);
+        Map<String, String> specs = binder.bind("app.cache.specs", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+
+        // refreshAfterWrite needs to know how to recompute an entry without the caller
+        Map<String, CacheLoader<Object, Object>> loaders = Map.of(
+                "activeDeals", key -> dealsRepo.findActiveDeals(LocalDate.now(), LocalTime.now())
+        );
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        for (String name : CACHE_NAMES) {
+            String spec = specs.getOrDefault(name, defaultSpec);
+            Caffeine<Object, Object> builder = Caffeine.from(spec).recordStats();
+            if (spec.contains("maximumWeight")) {
+                builder.weigher((key, value) -> weigh(value));
+            }
+            if (spec.contains("refreshAfterWrite")) {
+                CacheLoader<Object, Object> loader = loaders.get(name);
+                if (loader == null) {
+                    throw new IllegalStateException("Cache '" + name + "' uses refreshAfterWrite but has no loader");
+                }
+                cacheManager.registerCustomCache(name, builder.build(loader));
+            } else {
+                cacheManager.registerCustomCache(name, builder.build());
+            }
+        }
         return cacheManager;
     }
 
+    // Collections are weighed by element count so one large list can't crowd out everything else
+    private static int weigh(Object value) {
+        if (value instanceof Collection<?> collection) return Math.max(1, collection.size());
+        if (value instanceof Map<?, ?> map) return Math.max(1, map.size());
+        return 1;
+    }
+
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -38,4 +93,4 @@ public class PerformanceConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.prathamesh.ShoppingBackend.Config;
+
+import com.prathamesh.ShoppingBackend.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tables that moved from identity columns to pooled sequences keep rows above what the new sequence
+ * would hand out, so each sequence is moved past its table's highest id on startup.
+ */
+@Component
+public class SequenceInitializer {
+
+    private record PooledSequence(String sequence, String table, int allocationSize) {}
+
+    private static final List<PooledSequence> SEQUENCES = List.of(
+            new PooledSequence("product_seq", "product", Product.ID_ALLOCATION_SIZE)
+    );
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory guarantees the schema update has created the sequences
+    public SequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        for (PooledSequence seq : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + seq.table(), Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + seq.sequence(), Long.class);
+            if (maxId != null && lastValue != null && lastValue <= maxId) {
+                // The pooled optimizer hands out (value - allocation, value], so the next block starts above maxId
+                jdbcTemplate.queryForObject("SELECT setval(?, ?)", Long.class, seq.sequence(), maxId + seq.allocationSize());
+                logger.info("Moved {} past existing {} id {}", seq.sequence(), seq.table(), maxId);
+            }
+        }
+    }
+}
@@ -46,13 +46,20 @@ public class SpringConfig {
                         .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()))
                 .cors(customizer -> customizer.configurationSource(corsConfigurationSource())) // Enable CORS
                 .authorizeHttpRequests(request -> request
+                        // Must precede the public /api/products/{id} matcher
+                        .requestMatchers(HttpMethod.GET, "/api/products/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/orders/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/products/import").hasRole("ADMIN")
                         .requestMatchers(
                                 "/api/users/register",
                                 "/api/users/login",
                                 "/api/users/refresh-token",
                                 "/api/deals/active",
                                 "/api/products",
-                                "/api/products/{id}")
+                                "/api/products/{id}",
+                                "/api/products/browse",
+                                "/api/images/**",
+                                "/actuator/health")
                         .permitAll()
 
                         // USER-specific endpoints
@@ -64,9 +71,12 @@ public class SpringConfig {
                         // ADMIN-specific endpoints
                         .requestMatchers("/api/analytics/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/orders/search").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/orders/status/bulk").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/products").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Shared endpoints
                         .requestMatchers("/api/users/{id}").hasAnyRole("USER", "ADMIN")
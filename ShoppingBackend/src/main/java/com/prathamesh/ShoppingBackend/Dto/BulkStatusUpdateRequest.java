@@ -0,0 +1,21 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.List;
+
+public class BulkStatusUpdateRequest {
+    private List<Long> orderIds;
+    private String status;
+
+    public BulkStatusUpdateRequest() {}
+
+    public BulkStatusUpdateRequest(List<Long> orderIds, String status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
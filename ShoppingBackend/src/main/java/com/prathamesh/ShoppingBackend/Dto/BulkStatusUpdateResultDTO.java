@@ -0,0 +1,32 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkStatusUpdateResultDTO {
+    private String status;
+    private int requested;
+    private int updated;
+    private List<StatusTransitionOutcomeDTO> outcomes = new ArrayList<>();
+
+    public BulkStatusUpdateResultDTO() {}
+
+    public BulkStatusUpdateResultDTO(String status, int requested, int updated, List<StatusTransitionOutcomeDTO> outcomes) {
+        this.status = status;
+        this.requested = requested;
+        this.updated = updated;
+        this.outcomes = outcomes;
+    }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+
+    public List<StatusTransitionOutcomeDTO> getOutcomes() { return outcomes; }
+    public void setOutcomes(List<StatusTransitionOutcomeDTO> outcomes) { this.outcomes = outcomes; }
+}
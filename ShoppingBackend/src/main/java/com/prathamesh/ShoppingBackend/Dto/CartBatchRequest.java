@@ -0,0 +1,16 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    private List<CartOperation> operations;
+
+    public CartBatchRequest() {}
+
+    public CartBatchRequest(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+
+    public List<CartOperation> getOperations() { return operations; }
+    public void setOperations(List<CartOperation> operations) { this.operations = operations; }
+}
@@ -0,0 +1,37 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+/**
+ * One step of a batch cart edit. ADD takes a productId and a positive quantity and adds to the line for
+ * that product; SET_QUANTITY sets a line's quantity (0 removes it) and REMOVE drops a line. SET_QUANTITY
+ * and REMOVE name the line by itemId or, for a line added earlier in the same batch, by productId.
+ */
+public class CartOperation {
+
+    public enum Type { ADD, SET_QUANTITY, REMOVE }
+
+    private Type type;
+    private Long itemId;
+    private Integer productId;
+    private Integer quantity;
+
+    public CartOperation() {}
+
+    public CartOperation(Type type, Long itemId, Integer productId, Integer quantity) {
+        this.type = type;
+        this.itemId = itemId;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
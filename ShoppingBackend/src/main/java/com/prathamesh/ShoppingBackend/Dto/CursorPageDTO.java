@@ -0,0 +1,29 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPageDTO<T> {
+    private List<T> items = new ArrayList<>();
+    private String next;
+    private int limit;
+
+    public CursorPageDTO() {}
+
+    public CursorPageDTO(List<T> items, String next, int limit) {
+        this.items = items;
+        this.next = next;
+        this.limit = limit;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public boolean isHasMore() { return next != null; }
+}
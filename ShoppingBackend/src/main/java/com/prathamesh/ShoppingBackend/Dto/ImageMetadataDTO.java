@@ -0,0 +1,29 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+public class ImageMetadataDTO {
+    private int id;
+    private String imageType;
+    private Long contentLength;
+    private String contentHash;
+
+    public ImageMetadataDTO() {}
+
+    public ImageMetadataDTO(int id, String imageType, Long contentLength, String contentHash) {
+        this.id = id;
+        this.imageType = imageType;
+        this.contentLength = contentLength;
+        this.contentHash = contentHash;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getImageType() { return imageType; }
+    public void setImageType(String imageType) { this.imageType = imageType; }
+
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+}
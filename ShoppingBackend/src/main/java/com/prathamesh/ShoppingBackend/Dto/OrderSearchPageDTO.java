@@ -0,0 +1,40 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderSearchPageDTO {
+    private List<OrderDTO> items = new ArrayList<>();
+    private String next;
+    private int limit;
+    // Only computed for the first page; exact up to the configured limit, a planner estimate beyond it
+    private Long total;
+    private boolean totalExact;
+
+    public OrderSearchPageDTO() {}
+
+    public OrderSearchPageDTO(List<OrderDTO> items, String next, int limit, Long total, boolean totalExact) {
+        this.items = items;
+        this.next = next;
+        this.limit = limit;
+        this.total = total;
+        this.totalExact = totalExact;
+    }
+
+    public List<OrderDTO> getItems() { return items; }
+    public void setItems(List<OrderDTO> items) { this.items = items; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public boolean isTotalExact() { return totalExact; }
+    public void setTotalExact(boolean totalExact) { this.totalExact = totalExact; }
+
+    public boolean isHasMore() { return next != null; }
+}
@@ -0,0 +1,36 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductBrowseDTO {
+    private List<ProductSummaryDTO> items = new ArrayList<>();
+    private String next;
+    private int total;
+    private Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+    public ProductBrowseDTO() {}
+
+    public ProductBrowseDTO(List<ProductSummaryDTO> items, String next, int total, Map<String, Map<String, Integer>> facets) {
+        this.items = items;
+        this.next = next;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<ProductSummaryDTO> getItems() { return items; }
+    public void setItems(List<ProductSummaryDTO> items) { this.items = items; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+
+    public boolean isHasMore() { return next != null; }
+}
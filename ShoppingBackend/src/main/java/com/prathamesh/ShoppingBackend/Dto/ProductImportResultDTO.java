@@ -0,0 +1,43 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResultDTO {
+    private int received;
+    private int invalid;
+    private int imported;
+    private List<Integer> ids = new ArrayList<>();
+    private List<ImportRowErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public ProductImportResultDTO() {}
+
+    public ProductImportResultDTO(int received, int invalid, int imported, List<Integer> ids,
+                                  List<ImportRowErrorDTO> errors, boolean errorsTruncated) {
+        this.received = received;
+        this.invalid = invalid;
+        this.imported = imported;
+        this.ids = ids;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getInvalid() { return invalid; }
+    public void setInvalid(int invalid) { this.invalid = invalid; }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public List<Integer> getIds() { return ids; }
+    public void setIds(List<Integer> ids) { this.ids = ids; }
+
+    public List<ImportRowErrorDTO> getErrors() { return errors; }
+    public void setErrors(List<ImportRowErrorDTO> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
@@ -0,0 +1,31 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.math.BigDecimal;
+
+public class ProductPriceDTO {
+    private int id;
+    private BigDecimal price;
+    private boolean available;
+    private BigDecimal discountPercentage;
+
+    public ProductPriceDTO() {}
+
+    public ProductPriceDTO(int id, BigDecimal price, boolean available, BigDecimal discountPercentage) {
+        this.id = id;
+        this.price = price;
+        this.available = available;
+        this.discountPercentage = discountPercentage;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+
+    public BigDecimal getDiscountPercentage() { return discountPercentage; }
+    public void setDiscountPercentage(BigDecimal discountPercentage) { this.discountPercentage = discountPercentage; }
+}
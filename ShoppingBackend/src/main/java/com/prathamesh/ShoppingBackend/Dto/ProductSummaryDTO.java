@@ -0,0 +1,61 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+public class ProductSummaryDTO {
+    private int id;
+    private String productName;
+    private String brand;
+    private String category;
+    private BigDecimal price;
+    private boolean available;
+    private int quantity;
+    private Date releaseDate;
+    private Integer imageId;
+
+    public ProductSummaryDTO() {}
+
+    public ProductSummaryDTO(int id, String productName, String brand, String category, BigDecimal price, boolean available, int quantity, Date releaseDate, Integer imageId) {
+        this.id = id;
+        this.productName = productName;
+        this.brand = brand;
+        this.category = category;
+        this.price = price;
+        this.available = available;
+        this.quantity = quantity;
+        this.releaseDate = releaseDate;
+        this.imageId = imageId;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public Date getReleaseDate() { return releaseDate; }
+    public void setReleaseDate(Date releaseDate) { this.releaseDate = releaseDate; }
+
+    public Integer getImageId() { return imageId; }
+    public void setImageId(Integer imageId) { this.imageId = imageId; }
+
+    public String getImageUrl() {
+        return imageId == null ? null : "/api/images/" + imageId + "?variant=card";
+    }
+}
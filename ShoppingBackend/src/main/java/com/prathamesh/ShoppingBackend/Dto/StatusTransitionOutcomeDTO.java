@@ -0,0 +1,33 @@
+package com.prathamesh.ShoppingBackend.Dto;
+
+public class StatusTransitionOutcomeDTO {
+
+    public enum Result {
+        UPDATED,
+        UNCHANGED,
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+
+    private Long orderId;
+    private Result result;
+    // Status before the call; null when the order does not exist
+    private String previousStatus;
+
+    public StatusTransitionOutcomeDTO() {}
+
+    public StatusTransitionOutcomeDTO(Long orderId, Result result, String previousStatus) {
+        this.orderId = orderId;
+        this.result = result;
+        this.previousStatus = previousStatus;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Result getResult() { return result; }
+    public void setResult(Result result) { this.result = result; }
+
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+}
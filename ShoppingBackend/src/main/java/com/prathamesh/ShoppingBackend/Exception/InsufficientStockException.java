@@ -0,0 +1,7 @@
+package com.prathamesh.ShoppingBackend.Exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,11 @@
 package com.prathamesh.ShoppingBackend.controller;
 
+import com.prathamesh.ShoppingBackend.Dto.CartBatchRequest;
 import com.prathamesh.ShoppingBackend.Dto.CartDTO;
+import com.prathamesh.ShoppingBackend.Exception.InsufficientStockException;
+import com.prathamesh.ShoppingBackend.Exception.ProductNotFoundException;
 import com.prathamesh.ShoppingBackend.model.User;
+import com.prathamesh.ShoppingBackend.model.UserPrincipal;
 import com.prathamesh.ShoppingBackend.repository.UserRepo;
 import com.prathamesh.ShoppingBackend.service.CartService;
 
@@ -27,7 +31,7 @@ public class CartController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<CartDTO> getCartForCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
         try {
-            User user = userRepo.findByUserName(userDetails.getUsername());
+            User user = currentUser(userDetails);
             if (user == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -45,7 +49,7 @@ public class CartController {
             @RequestParam int productId,
             @RequestParam int quantity) {
         try {
-            User user = userRepo.findByUserName(userDetails.getUsername());
+            User user = currentUser(userDetails);
             if (user == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -56,28 +60,21 @@ public class CartController {
         }
     }
 
-    @DeleteMapping("/remove/{productId}")
+    @DeleteMapping("/remove/{itemId}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> removeFromCart(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable int productId) {
+            @PathVariable long itemId) {
         try {
-            System.out.println("Removing product with ID: " + productId); // Debugging
-            User user = userRepo.findByUserName(userDetails.getUsername());
+            User user = currentUser(userDetails);
             if (user == null) {
-                System.out.println("User not found"); // Debugging
                 return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
             }
-    
-            CartDTO cart = cartService.removeFromCart(user, productId);
-            System.out.println("Updated cart: " + cart); // Debugging
+            CartDTO cart = cartService.removeFromCart(user, itemId);
             return new ResponseEntity<>(cart, HttpStatus.OK);
         } catch (RuntimeException e) {
-            System.err.println("Error removing item from cart: " + e.getMessage()); // Debugging
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
-            System.err.println("Error removing item from cart: " + e.getMessage()); // Debugging
-            e.printStackTrace(); // Debugging
             return new ResponseEntity<>("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
@@ -86,10 +83,10 @@ public class CartController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<CartDTO> updateCartItem(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable int itemId,
+            @PathVariable long itemId,
             @RequestParam int quantity) {
         try {
-            User user = userRepo.findByUserName(userDetails.getUsername());
+            User user = currentUser(userDetails);
             if (user == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -100,11 +97,33 @@ public class CartController {
         }
     }
 
+    /** Applies an ordered list of ADD, SET_QUANTITY and REMOVE operations together and returns the resulting cart. */
+    @PatchMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> applyCartOperations(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody CartBatchRequest request) {
+        try {
+            User user = currentUser(userDetails);
+            if (user == null) {
+                return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
+            }
+            CartDTO cartDTO = cartService.applyOperations(user, request.getOperations());
+            return new ResponseEntity<>(cartDTO, HttpStatus.OK);
+        } catch (IllegalArgumentException | InsufficientStockException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ProductNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Failed to update cart", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @DeleteMapping("/clear")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Void> clearCart(@AuthenticationPrincipal UserDetails userDetails) {
         try {
-            User user = userRepo.findByUserName(userDetails.getUsername());
+            User user = currentUser(userDetails);
             if (user == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -114,4 +133,12 @@ public class CartController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // The authenticated principal already carries the user, so cart calls need not look it up again
+    private User currentUser(UserDetails userDetails) {
+        if (userDetails instanceof UserPrincipal principal) {
+            return principal.getUser();
+        }
+        return userRepo.findByUserName(userDetails.getUsername());
+    }
+}
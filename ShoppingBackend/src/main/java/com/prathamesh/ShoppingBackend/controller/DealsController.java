@@ -3,7 +3,9 @@ package com.prathamesh.ShoppingBackend.controller;
 import com.prathamesh.ShoppingBackend.Exception.DealNotFoundException;
 import com.prathamesh.ShoppingBackend.model.Deals;
 import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo.Resource;
 import com.prathamesh.ShoppingBackend.service.DealsService;
+import com.prathamesh.ShoppingBackend.service.SparseFieldsetService;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -24,18 +26,34 @@ import java.util.stream.Collectors;
 public class DealsController {
 
     private final DealsService dealsService;
+    private final SparseFieldsetService sparseFieldsetService;
 
-    public DealsController(DealsService dealsService) {
+    public DealsController(DealsService dealsService, SparseFieldsetService sparseFieldsetService) {
         this.dealsService = dealsService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Deals>> getAllDeals() {
+    public ResponseEntity<?> getAllDeals(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            try {
+                return ResponseEntity.ok(sparseFieldsetService.findAll(Resource.DEAL, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         return ResponseEntity.ok(dealsService.getAllDeals());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Deals> getDealById(@PathVariable int id) {
+    public ResponseEntity<?> getDealById(@PathVariable int id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            try {
+                return ResponseEntity.ok(sparseFieldsetService.findById(Resource.DEAL, id, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         return ResponseEntity.ok(dealsService.getDealById(id));
     }
 
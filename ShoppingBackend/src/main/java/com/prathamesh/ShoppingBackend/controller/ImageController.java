@@ -0,0 +1,133 @@
+package com.prathamesh.ShoppingBackend.controller;
+
+import com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant.Variant;
+import com.prathamesh.ShoppingBackend.service.ImageService;
+import com.prathamesh.ShoppingBackend.service.ImageService.Source;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    // Product images are replaced with new rows, so a given id never changes content
+    private static final CacheControl PRODUCT_IMAGE_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    // Originals served in place of a derivative that is still being built must not be cached for long
+    private static final CacheControl PENDING_VARIANT_CACHE = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+    private static final CacheControl DEAL_IMAGE_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+    private final ImageService imageService;
+
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamingResponseBody> getProductImage(
+            @PathVariable int id,
+            @RequestParam(required = false) String variant,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest webRequest) {
+        if (variant != null) {
+            Variant requested;
+            try {
+                requested = Variant.fromParam(variant);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            Optional<ImageMetadataDTO> derivative = imageService.findVariantMetadata(id, requested);
+            if (derivative.isPresent()) {
+                return serveImage(Source.VARIANT, derivative.get(), PRODUCT_IMAGE_CACHE, range, ifRange, webRequest);
+            }
+            return serveImage(Source.PRODUCT, imageService.getMetadata(Source.PRODUCT, id),
+                    PENDING_VARIANT_CACHE, range, ifRange, webRequest);
+        }
+        return serveImage(Source.PRODUCT, imageService.getMetadata(Source.PRODUCT, id),
+                PRODUCT_IMAGE_CACHE, range, ifRange, webRequest);
+    }
+
+    @GetMapping("/deals/{id}")
+    public ResponseEntity<StreamingResponseBody> getDealImage(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest webRequest) {
+        return serveImage(Source.DEAL, imageService.getMetadata(Source.DEAL, id),
+                DEAL_IMAGE_CACHE, range, ifRange, webRequest);
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveImage(Source source, ImageMetadataDTO meta, CacheControl cacheControl,
+                                                             String range, String ifRange, WebRequest webRequest) {
+        int id = meta.getId();
+        String etag = "\"" + meta.getContentHash() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        long total = meta.getContentLength();
+        long start = 0;
+        long end = total - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        // Only a single range is honoured; anything else falls back to the full body
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(total);
+                    end = ranges.get(0).getRangeEnd(total);
+                    if (start > end || start >= total) {
+                        throw new IllegalArgumentException("Range starts beyond content length");
+                    }
+                    status = HttpStatus.PARTIAL_CONTENT;
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + total)
+                            .build();
+                }
+            }
+        }
+
+        long offset = start;
+        long length = end - start + 1;
+        StreamingResponseBody body = out -> {
+            try {
+                imageService.streamImage(source, id, offset, length, out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(meta.getImageType() != null
+                        ? MediaType.parseMediaType(meta.getImageType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(length)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total);
+        }
+        return response.body(body);
+    }
+}
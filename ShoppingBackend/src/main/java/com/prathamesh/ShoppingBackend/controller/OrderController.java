@@ -1,17 +1,33 @@
 package com.prathamesh.ShoppingBackend.controller;
 
+import com.prathamesh.ShoppingBackend.Config.StreamingTimeouts;
 import com.prathamesh.ShoppingBackend.Dto.*;
 import com.prathamesh.ShoppingBackend.service.*;
+import com.prathamesh.ShoppingBackend.Exception.InsufficientStockException;
+import com.prathamesh.ShoppingBackend.Exception.InvalidInputException;
+import com.prathamesh.ShoppingBackend.Exception.InvalidOrderException;
 import com.prathamesh.ShoppingBackend.Exception.ResourceNotFoundException;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo.Resource;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 
 import io.jsonwebtoken.MalformedJwtException;
@@ -26,15 +42,31 @@ public class OrderController {
     private JWTService jwtService;
     @Autowired
     private UserDetailsService userDetailsService;
+    @Autowired
+    private SparseFieldsetService sparseFieldsetService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Value("${app.orders.export.timeout:30m}")
+    private Duration exportTimeout;
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String fields) {
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(sparseFieldsetService.findAll(Resource.ORDER, fields));
+            }
             List<OrderDTO> orders = orderService.getAllOrders();
             return ResponseEntity.ok(orders.isEmpty() ? "No orders found." : orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching all orders", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -42,9 +74,62 @@ public class OrderController {
         }
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(orderService.searchOrders(userId, status, from, to, minAmount, maxAmount, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error searching orders", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to search orders. Please try again later.");
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String after,
+            HttpServletRequest request) throws InvalidInputException {
+        ExportFormat exportFormat;
+        OrderExportService.Position position;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+            orderExportService.validate(from, to);
+            position = after == null ? null : OrderExportService.Position.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(e.getMessage());
+        }
+        logger.info("Exporting order ledger from {} to {} as {}{}", from, to, exportFormat,
+                position == null ? "" : ", resuming after order " + position.orderId());
+        StreamingTimeouts.set(request, exportTimeout);
+        StreamingResponseBody body = out -> orderExportService.export(exportFormat, from, to, position, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + from + "-" + to + "." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrderById(
             @PathVariable Long id,
+            @RequestParam(required = false) String fields,
             @RequestHeader("Authorization") String token) {
         try {
             String username = jwtService.extractUserName(token);
@@ -54,7 +139,12 @@ public class OrderController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
+            if (fields != null) {
+                return ResponseEntity.ok(sparseFieldsetService.findById(Resource.ORDER, id, fields));
+            }
             return ResponseEntity.ok(orderService.getOrderById(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             logger.error("Order not found with ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -66,11 +156,23 @@ public class OrderController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getOrdersByUserId(@PathVariable String userId) {
+    public ResponseEntity<?> getOrdersByUserId(@PathVariable String userId,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null || status != null) {
+                return ResponseEntity.ok(orderService.getOrderPageByUserId(Long.parseLong(userId), status, cursor, limit));
+            }
+            if (fields != null) {
+                return ResponseEntity.ok(sparseFieldsetService.findBy(Resource.ORDER, fields, "userId", Long.parseLong(userId)));
+            }
             return ResponseEntity.ok(orderService.getOrdersByUserId(Long.parseLong(userId)));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().body("Invalid user ID format");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error fetching orders for user: {}", userId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -81,7 +183,8 @@ public class OrderController {
     @PostMapping
     public ResponseEntity<?> createOrder(
             @RequestBody OrderRequest orderRequest,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             if (token == null || !token.startsWith("Bearer ")) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -99,9 +202,26 @@ public class OrderController {
                 return ResponseEntity.badRequest().body("Shipping address is required");
             }
 
-            return ResponseEntity.ok(orderService.createOrder(orderRequest));
+            if (idempotencyKey != null) {
+                return idempotencyService.execute(username, idempotencyKey, orderRequest, () -> placeOrder(orderRequest));
+            }
+            return placeOrder(orderRequest);
         } catch (MalformedJwtException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error creating order", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to create order: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> placeOrder(OrderRequest orderRequest) {
+        try {
+            return ResponseEntity.ok(orderIntakeService.placeOrder(orderRequest));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error creating order", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -120,6 +240,8 @@ public class OrderController {
                 return ResponseEntity.badRequest().body("Status cannot be empty");
             }
             return ResponseEntity.ok(orderService.updateOrderStatus(orderId, newStatus));
+        } catch (InvalidOrderException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
@@ -140,6 +262,8 @@ public class OrderController {
                 return ResponseEntity.badRequest().body("Status cannot be empty");
             }
             return ResponseEntity.ok(orderService.updateOrderStatus(orderId, status));
+        } catch (InvalidOrderException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
@@ -149,6 +273,20 @@ public class OrderController {
         }
     }
 
+    @PostMapping("/status/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(request));
+        } catch (IllegalArgumentException | InvalidOrderException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error updating order statuses in bulk", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to update order statuses");
+        }
+    }
+
     @PatchMapping("/{orderId}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateOrderStatusPatch(
@@ -1,20 +1,38 @@
 package com.prathamesh.ShoppingBackend.controller;
 
+import com.prathamesh.ShoppingBackend.Config.StreamingTimeouts;
+import com.prathamesh.ShoppingBackend.Dto.ProductImportResultDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
 import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo.Resource;
+import com.prathamesh.ShoppingBackend.service.ProductExportService;
+import com.prathamesh.ShoppingBackend.service.ProductFacetIndex;
+import com.prathamesh.ShoppingBackend.service.ProductImportService;
 import com.prathamesh.ShoppingBackend.service.ProductService;
+import com.prathamesh.ShoppingBackend.service.SparseFieldsetService;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
 
 import java.io.*;
 
+import com.prathamesh.ShoppingBackend.Exception.InvalidInputException;
 import com.prathamesh.ShoppingBackend.Exception.ResourceNotFoundException;
 import org.slf4j.Logger;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173")
@@ -23,38 +41,121 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     private final ProductService productService;
+    private final SparseFieldsetService sparseFieldsetService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final Duration exportTimeout;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, SparseFieldsetService sparseFieldsetService,
+                             ProductExportService productExportService, ProductImportService productImportService,
+                             @Value("${app.products.export.timeout:30m}") Duration exportTimeout) {
         this.productService = productService;
+        this.sparseFieldsetService = sparseFieldsetService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.exportTimeout = exportTimeout;
     }
 
    @GetMapping("/products")
-    public ResponseEntity<List<Product>> getAllProducts(
-            @RequestParam(required = false) String fields) {
-        
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+
+        if (cursor != null || limit != null || sort != null) {
+            logger.info("Fetching product page sort={} direction={} limit={}", sort, direction, limit);
+            try {
+                return ResponseEntity.ok(productService.getProductPage(sort, direction, cursor, limit));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        if (fields != null) {
+            try {
+                return ResponseEntity.ok(sparseFieldsetService.findAll(Resource.PRODUCT, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
         logger.info("Fetching all products");
         List<Product> products = productService.getAllProducts();
-        
-        if (fields != null && fields.contains("id,productName")) {
-            return ResponseEntity.ok(products.stream()
-                .map(p -> {
-                    Product dto = new Product();
-                    dto.setId(p.getId());
-                    dto.setProductName(p.getProductName());
-                    return dto;
-                })
-                .collect(Collectors.toList()));
-        }
-        
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
+    @GetMapping("/products/browse")
+    public ResponseEntity<?> browseProducts(
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Set<String> brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Boolean inDeal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductFacetIndex.Filter filter = new ProductFacetIndex.Filter(category, brand, minPrice, maxPrice, available, inDeal);
+            return ResponseEntity.ok(productService.browseProducts(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/products/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(required = false) String format,
+                                                                HttpServletRequest request) throws InvalidInputException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(e.getMessage());
+        }
+        logger.info("Exporting product catalog as {}", exportFormat);
+        StreamingTimeouts.set(request, exportTimeout);
+        StreamingResponseBody body = out -> productExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "false") boolean skipInvalid,
+            InputStream body) throws IOException {
+        ExportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ExportFormat.CSV
+                : ExportFormat.NDJSON;
+        logger.info("Importing products as {} (skipInvalid={})", format, skipInvalid);
+        try {
+            ProductImportResultDTO result = productImportService.importProducts(format, body, skipInvalid);
+            if (result.getInvalid() > 0 && !skipInvalid) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/product/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable int id) {
+    public ResponseEntity<?> getProductById(@PathVariable int id, @RequestParam(required = false) String fields) {
         logger.info("Fetching product with ID: {}", id);
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(sparseFieldsetService.findById(Resource.PRODUCT, id, fields));
+            }
             Product product = productService.getProductById(id);
             return new ResponseEntity<>(product, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (ResourceNotFoundException e) {
             logger.error("Product not found with ID: {}", id, e);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -113,17 +214,20 @@ public class ProductController {
     }
 
     @GetMapping("/product/search")
-    public ResponseEntity<List<Product>> searchProducts(
-            @RequestParam String searchField,
-            @RequestParam String searchQuery) {
+    public ResponseEntity<List<ProductSummaryDTO>> searchProducts(
+            @RequestParam(required = false) String searchField,
+            @RequestParam String searchQuery,
+            @RequestParam(required = false) Integer limit) {
         logger.info("Searching products with {}: {}", searchField, searchQuery);
-        if (searchField == null || searchQuery == null || searchField.isEmpty() || searchQuery.isEmpty()) {
+        if (searchQuery == null || searchQuery.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         try {
-            List<Product> products = productService.searchProduct(searchField, searchQuery);
+            List<ProductSummaryDTO> products = productService.searchProduct(searchField, searchQuery, limit);
             return products.isEmpty() ? new ResponseEntity<>(HttpStatus.NOT_FOUND)
                     : new ResponseEntity<>(products, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error searching products", e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
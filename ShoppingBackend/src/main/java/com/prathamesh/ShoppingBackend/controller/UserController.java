@@ -3,6 +3,8 @@ package com.prathamesh.ShoppingBackend.controller;
 import com.prathamesh.ShoppingBackend.Dto.UserRegistrationDTO;
 import com.prathamesh.ShoppingBackend.model.User;
 import com.prathamesh.ShoppingBackend.model.UserPrincipal;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo.Resource;
+import com.prathamesh.ShoppingBackend.service.SparseFieldsetService;
 import com.prathamesh.ShoppingBackend.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,15 +25,24 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final SparseFieldsetService sparseFieldsetService;
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, SparseFieldsetService sparseFieldsetService) {
         this.userService = userService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
 
     // Get user by ID
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable long id) {
+    public ResponseEntity<?> getUserById(@PathVariable long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            try {
+                return ResponseEntity.ok(sparseFieldsetService.findById(Resource.USER, id, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         User user = userService.getUserById(id);
         if (user != null) {
             return new ResponseEntity<>(user, HttpStatus.OK);
@@ -42,7 +53,14 @@ public class UserController {
 
     // Get all users
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            try {
+                return ResponseEntity.ok(sparseFieldsetService.findAll(Resource.USER, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         List<User> users = userService.getAllUsers();
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
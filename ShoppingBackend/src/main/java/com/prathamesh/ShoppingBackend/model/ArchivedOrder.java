@@ -0,0 +1,78 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A closed order moved out of the orders table by OrderArchiveService: one row per order, with its items
+ * folded into a JSON array of {id, productId, quantity, price}; rows archived before the item id was kept
+ * have no id. Its status changes are folded the same way into {fromStatus, toStatus, changedAt, changedBy};
+ * rows archived before that was kept have none. Rows are only ever written with plain SQL.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_id", columnList = "user_id"),
+        @Index(name = "idx_orders_archive_created_id", columnList = "created_at, id")
+})
+public class ArchivedOrder {
+
+    // Keeps the id the order had while it was live
+    @Id
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "address_id")
+    private Long addressId;
+
+    @Column(name = "total_amount", precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "subtotal_amount", precision = 19, scale = 2)
+    private BigDecimal subtotalAmount;
+
+    @Column(name = "shipping_cost", precision = 19, scale = 2)
+    private BigDecimal shippingCost;
+
+    @Column(name = "tax_amount", precision = 19, scale = 2)
+    private BigDecimal taxAmount;
+
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private String items;
+
+    @Column(name = "status_history", columnDefinition = "jsonb")
+    private String statusHistory;
+
+    public ArchivedOrder() {}
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getAddressId() { return addressId; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public BigDecimal getSubtotalAmount() { return subtotalAmount; }
+    public BigDecimal getShippingCost() { return shippingCost; }
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public String getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public String getItems() { return items; }
+    public String getStatusHistory() { return statusHistory; }
+}
@@ -2,6 +2,7 @@ package com.prathamesh.ShoppingBackend.model;
 
 import jakarta.persistence.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -21,7 +22,7 @@ public class Cart {
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference(value = "cart-items")
-    private List<CartItem> items;
+    private List<CartItem> items = new ArrayList<>();
 
     public Cart() {}
 
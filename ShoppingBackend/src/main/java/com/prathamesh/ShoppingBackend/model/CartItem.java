@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.prathamesh.ShoppingBackend.util.TimeOrderedId;
 
 @Entity
 public class CartItem {
 
+    // Generated in the application so carts held in memory (HotCartStore) have final item ids before they are saved
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne
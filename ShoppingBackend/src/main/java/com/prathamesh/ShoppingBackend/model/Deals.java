@@ -8,14 +8,15 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.prathamesh.ShoppingBackend.util.ContentHash;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Base64;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
@@ -37,8 +38,17 @@ public class Deals {
 
     @Lob
     @Column(name = "image_data")
+    @JsonIgnore
     private byte[] imageData;
 
+    @Column(name = "image_content_length")
+    @JsonIgnore
+    private Long imageContentLength;
+
+    @Column(name = "image_content_hash", length = 64)
+    @JsonIgnore
+    private String imageContentHash;
+
     @Column(name = "image_type")
     private String imageType;
 
@@ -86,8 +96,10 @@ public class Deals {
     private List<Product> products = new ArrayList<>();
 
     public String getImageUrl() {
-        if (imageData == null || imageType == null) return null;
-        return "data:" + imageType + ";base64," + Base64.getEncoder().encodeToString(imageData);
+        if (id == 0 || imageType == null) return null;
+        // The version parameter changes with the content so caches never serve a replaced image
+        String url = "/api/images/deals/" + id;
+        return imageContentHash != null ? url + "?v=" + imageContentHash.substring(0, 12) : url;
     }
 
     public void addProduct(Product product) {
@@ -125,6 +137,8 @@ public class Deals {
         this.description = description;
         this.discountPercentage = discountPercentage;
         this.imageData = imageData;
+        this.imageContentLength = ContentHash.lengthOf(imageData);
+        this.imageContentHash = ContentHash.sha256Hex(imageData);
         this.imageType = imageType;
         this.imageUrl = imageUrl;
         this.startDate = startDate;
@@ -152,7 +166,17 @@ public class Deals {
     public void setDiscountPercentage(BigDecimal discountPercentage) { this.discountPercentage = discountPercentage; }
 
     public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public void setImageData(byte[] imageData) {
+        this.imageData = imageData;
+        this.imageContentLength = ContentHash.lengthOf(imageData);
+        this.imageContentHash = ContentHash.sha256Hex(imageData);
+    }
+
+    public Long getImageContentLength() { return imageContentLength; }
+    public void setImageContentLength(Long imageContentLength) { this.imageContentLength = imageContentLength; }
+
+    public String getImageContentHash() { return imageContentHash; }
+    public void setImageContentHash(String imageContentHash) { this.imageContentHash = imageContentHash; }
 
     public String getImageType() { return imageType; }
     public void setImageType(String imageType) { this.imageType = imageType; }
@@ -3,18 +3,21 @@ package com.prathamesh.ShoppingBackend.model;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.prathamesh.ShoppingBackend.util.TimeOrderedId;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "order_item")
 public class OrderItem {
 
+    // Generated in the application so an order's items are inserted in one batch, on any node
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
+    // No foreign key: a month-partitioned orders table has no unique constraint on id alone (db-partitioning.sql)
     @ManyToOne
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonBackReference
     private Orders order;
 
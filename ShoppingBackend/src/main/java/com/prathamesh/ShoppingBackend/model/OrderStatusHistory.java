@@ -0,0 +1,52 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/** One status change of an order; rows are written by the set-based transition in OrderStatusService. */
+@Entity
+@Table(name = "order_status_history", indexes = @Index(name = "idx_order_status_history_order_id", columnList = "order_id"))
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private Orders.OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private Orders.OrderStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "changed_by")
+    private String changedBy;
+
+    public OrderStatusHistory() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Orders.OrderStatus getFromStatus() { return fromStatus; }
+    public void setFromStatus(Orders.OrderStatus fromStatus) { this.fromStatus = fromStatus; }
+
+    public Orders.OrderStatus getToStatus() { return toStatus; }
+    public void setToStatus(Orders.OrderStatus toStatus) { this.toStatus = toStatus; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public String getChangedBy() { return changedBy; }
+    public void setChangedBy(String changedBy) { this.changedBy = changedBy; }
+}
@@ -3,10 +3,14 @@ package com.prathamesh.ShoppingBackend.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.prathamesh.ShoppingBackend.util.TimeOrderedId;
 
 @Entity
 @Table(name = "orders")
@@ -17,11 +21,37 @@ public class Orders {
         PROCESSING,
         SHIPPED,
         DELIVERED,
-        CANCELLED
+        CANCELLED;
+
+        /** Statuses an order may move to from this one; DELIVERED and CANCELLED are final. */
+        public Set<OrderStatus> next() {
+            return switch (this) {
+                case PENDING -> EnumSet.of(PROCESSING, CANCELLED);
+                case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+                case SHIPPED -> EnumSet.of(DELIVERED);
+                case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+            };
+        }
+
+        public boolean canTransitionTo(OrderStatus target) {
+            return next().contains(target);
+        }
+
+        /** Statuses from which an order may move to {@code target}. */
+        public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+            Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : values()) {
+                if (status.canTransitionTo(target)) {
+                    sources.add(status);
+                }
+            }
+            return sources;
+        }
     }
 
+    // Generated in the application so order inserts batch; see db-order-ids.sql for existing databases
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(name = "user_id")
@@ -70,6 +100,11 @@ public class Orders {
     @Column(name = "tax_amount", precision = 19, scale = 2)
     private BigDecimal taxAmount;
 
+    // Whether placing the order took its items out of stock; orders from before reservations did not
+    @Column(name = "stock_reserved", nullable = false)
+    @ColumnDefault("false")
+    private boolean stockReserved;
+
     public Orders() {}
 
     public Orders(Long id, Long userId, BigDecimal totalAmount, LocalDateTime createdAt, OrderStatus status, LocalDateTime updatedAt, List<OrderItem> items, Address address, BigDecimal subtotalAmount, BigDecimal shippingCost, BigDecimal taxAmount) {
@@ -118,4 +153,7 @@ public class Orders {
 
     public BigDecimal getTaxAmount() { return taxAmount; }
     public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public boolean isStockReserved() { return stockReserved; }
+    public void setStockReserved(boolean stockReserved) { this.stockReserved = stockReserved; }
 }
\ No newline at end of file
@@ -12,8 +12,12 @@ import jakarta.persistence.*;
 @Entity
 public class Product {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence so bulk inserts can be batched; see SequenceInitializer for existing databases
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = Product.ID_ALLOCATION_SIZE)
     private int id;
 
     private String productName;
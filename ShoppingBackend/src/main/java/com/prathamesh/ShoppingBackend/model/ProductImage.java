@@ -1,9 +1,12 @@
 package com.prathamesh.ShoppingBackend.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.prathamesh.ShoppingBackend.util.ContentHash;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 public class ProductImage {
@@ -16,8 +19,20 @@ public class ProductImage {
     private String imageType;
 
     @Lob
+    @JsonIgnore
     private byte[] imageData;
-    
+
+    private Long contentLength;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    // Set when the data cannot be decoded, so the startup backfill stops retrying it; cleared with new data
+    @Column(name = "derivatives_failed", nullable = false)
+    @ColumnDefault("false")
+    @JsonIgnore
+    private boolean derivativesFailed;
+
     @ManyToOne
     @JoinColumn(name = "product_id", nullable = false)
     @JsonBackReference
@@ -30,6 +45,8 @@ public class ProductImage {
         this.imageName = imageName;
         this.imageType = imageType;
         this.imageData = imageData;
+        this.contentLength = ContentHash.lengthOf(imageData);
+        this.contentHash = ContentHash.sha256Hex(imageData);
         this.product = product;
     }
 
@@ -43,7 +60,21 @@ public class ProductImage {
     public void setImageType(String imageType) { this.imageType = imageType; }
 
     public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public void setImageData(byte[] imageData) {
+        this.imageData = imageData;
+        this.contentLength = ContentHash.lengthOf(imageData);
+        this.contentHash = ContentHash.sha256Hex(imageData);
+        this.derivativesFailed = false;
+    }
+
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public boolean isDerivativesFailed() { return derivativesFailed; }
+    public void setDerivativesFailed(boolean derivativesFailed) { this.derivativesFailed = derivativesFailed; }
 
     public Product getProduct() { return product; }
     public void setProduct(Product product) { this.product = product; }
@@ -51,7 +82,30 @@ public class ProductImage {
     @Transient
     @JsonProperty("imageUrl")
     public String getImageUrl() {
-        if (imageData == null || imageType == null) return null;
-        return "data:" + imageType + ";base64," + java.util.Base64.getEncoder().encodeToString(imageData);
+        if (id == 0 || imageType == null) return null;
+        return "/api/images/" + id;
+    }
+
+    @Transient
+    @JsonProperty("thumbnailUrl")
+    public String getThumbnailUrl() {
+        return variantUrl(ProductImageVariant.Variant.THUMBNAIL);
+    }
+
+    @Transient
+    @JsonProperty("cardUrl")
+    public String getCardUrl() {
+        return variantUrl(ProductImageVariant.Variant.CARD);
+    }
+
+    @Transient
+    @JsonProperty("detailUrl")
+    public String getDetailUrl() {
+        return variantUrl(ProductImageVariant.Variant.DETAIL);
+    }
+
+    private String variantUrl(ProductImageVariant.Variant variant) {
+        String url = getImageUrl();
+        return url == null ? null : url + "?variant=" + variant.getParam();
     }
 }
\ No newline at end of file
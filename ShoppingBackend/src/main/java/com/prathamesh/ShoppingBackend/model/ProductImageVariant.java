@@ -0,0 +1,110 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.prathamesh.ShoppingBackend.util.ContentHash;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+@Entity
+@Table(name = "product_image_variant",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"image_id", "variant"}))
+public class ProductImageVariant {
+
+    public enum Variant {
+        THUMBNAIL(160),
+        CARD(480),
+        DETAIL(1200);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() { return maxDimension; }
+
+        public String getParam() { return name().toLowerCase(); }
+
+        public static Variant fromParam(String param) {
+            for (Variant variant : values()) {
+                if (variant.getParam().equalsIgnoreCase(param)) {
+                    return variant;
+                }
+            }
+            throw new IllegalArgumentException("Unknown image variant: " + param);
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "image_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private ProductImage image;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Variant variant;
+
+    private int width;
+    private int height;
+    private String imageType;
+
+    @Lob
+    @JsonIgnore
+    private byte[] imageData;
+
+    private Long contentLength;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    public ProductImageVariant() {}
+
+    public ProductImageVariant(ProductImage image, Variant variant, int width, int height, String imageType, byte[] imageData) {
+        this.image = image;
+        this.variant = variant;
+        this.width = width;
+        this.height = height;
+        this.imageType = imageType;
+        this.imageData = imageData;
+        this.contentLength = ContentHash.lengthOf(imageData);
+        this.contentHash = ContentHash.sha256Hex(imageData);
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public ProductImage getImage() { return image; }
+    public void setImage(ProductImage image) { this.image = image; }
+
+    public Variant getVariant() { return variant; }
+    public void setVariant(Variant variant) { this.variant = variant; }
+
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+
+    public int getHeight() { return height; }
+    public void setHeight(int height) { this.height = height; }
+
+    public String getImageType() { return imageType; }
+    public void setImageType(String imageType) { this.imageType = imageType; }
+
+    public byte[] getImageData() { return imageData; }
+    public void setImageData(byte[] imageData) {
+        this.imageData = imageData;
+        this.contentLength = ContentHash.lengthOf(imageData);
+        this.contentHash = ContentHash.sha256Hex(imageData);
+    }
+
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+}
@@ -0,0 +1,63 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Units of a product taken off its row by one node's HotStockFront and not yet given back. Units used by
+ * orders are recorded as {@link StockLeaseUse} rows and periodically subtracted here, so quantity minus
+ * the unsettled uses is what the node holds in memory. A node returns what is left when it starts.
+ */
+@Entity
+@Table(name = "stock_lease")
+@IdClass(StockLease.Key.class)
+public class StockLease {
+
+    @Id
+    @Column(name = "node_id")
+    private int nodeId;
+
+    @Id
+    @Column(name = "product_id")
+    private int productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    public StockLease() {}
+
+    public int getNodeId() { return nodeId; }
+    public void setNodeId(int nodeId) { this.nodeId = nodeId; }
+
+    public int getProductId() { return productId; }
+    public void setProductId(int productId) { this.productId = productId; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int nodeId;
+        private int productId;
+
+        public Key() {}
+
+        public Key(int nodeId, int productId) {
+            this.nodeId = nodeId;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && nodeId == other.nodeId && productId == other.productId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeId, productId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import com.prathamesh.ShoppingBackend.util.TimeOrderedId;
+import jakarta.persistence.*;
+
+/**
+ * Leased units taken by an order, written in the order's transaction so they count as used exactly when
+ * the order exists. Folded into {@link StockLease} and deleted by HotStockFront.
+ */
+@Entity
+@Table(name = "stock_lease_use", indexes = @Index(name = "idx_stock_lease_use_node_id", columnList = "node_id"))
+public class StockLeaseUse {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "node_id", nullable = false)
+    private int nodeId;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    public StockLeaseUse() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getNodeId() { return nodeId; }
+    public void setNodeId(int nodeId) { this.nodeId = nodeId; }
+
+    public int getProductId() { return productId; }
+    public void setProductId(int productId) { this.productId = productId; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
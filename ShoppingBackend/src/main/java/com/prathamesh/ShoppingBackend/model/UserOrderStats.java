@@ -0,0 +1,60 @@
+package com.prathamesh.ShoppingBackend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * How many orders a user has in each status, archived orders included, with one column per
+ * {@link Orders.OrderStatus}. Kept up to date with plain SQL by OrderStatsService in the same transaction
+ * as the order change, and reconciled against the orders periodically.
+ */
+@Entity
+@Table(name = "user_order_stats")
+public class UserOrderStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long pending;
+
+    @Column(nullable = false)
+    private long processing;
+
+    @Column(nullable = false)
+    private long shipped;
+
+    @Column(nullable = false)
+    private long delivered;
+
+    @Column(nullable = false)
+    private long cancelled;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserOrderStats() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+
+    public long getProcessing() { return processing; }
+    public void setProcessing(long processing) { this.processing = processing; }
+
+    public long getShipped() { return shipped; }
+    public void setShipped(long shipped) { this.shipped = shipped; }
+
+    public long getDelivered() { return delivered; }
+    public void setDelivered(long delivered) { this.delivered = delivered; }
+
+    public long getCancelled() { return cancelled; }
+    public void setCancelled(long cancelled) { this.cancelled = cancelled; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
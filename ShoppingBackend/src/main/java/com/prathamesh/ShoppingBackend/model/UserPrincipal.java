@@ -34,6 +34,10 @@ public class UserPrincipal implements UserDetails {
         return user.getId(); 
     }
 
+    public User getUser() {
+        return user;
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true; // Modify as needed
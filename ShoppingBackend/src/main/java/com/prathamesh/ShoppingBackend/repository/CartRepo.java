@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +15,8 @@ import com.prathamesh.ShoppingBackend.model.User;
 
 @Repository
 public interface CartRepo extends JpaRepository<Cart, Long> {
+    // Items and their products in the same query, so rendering a cart costs the same for any number of items
+    @EntityGraph(attributePaths = {"items", "items.product"})
     Optional<Cart> findByUser(User user);
     
     @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
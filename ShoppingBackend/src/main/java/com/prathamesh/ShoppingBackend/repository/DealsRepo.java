@@ -1,5 +1,6 @@
 package com.prathamesh.ShoppingBackend.repository;
 
+import com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO;
 import com.prathamesh.ShoppingBackend.model.Deals;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -23,10 +24,22 @@ public interface DealsRepo extends JpaRepository<Deals, Integer> {
     List<Deals> findActiveDeals(@Param("currentDate") LocalDate currentDate,
                                 @Param("currentTime") LocalTime currentTime);
 
+    @Query("SELECT DISTINCT p.id FROM Deals d JOIN d.products p WHERE d.isActive = true " +
+            "AND ((" +
+            "  (d.startDate < :currentDate AND d.endDate > :currentDate) " +
+            "  OR (d.startDate = :currentDate AND d.startTime <= :currentTime) " +
+            "  OR (d.endDate = :currentDate AND d.endTime >= :currentTime)" +
+            "))")
+    List<Integer> findProductIdsInActiveDeals(@Param("currentDate") LocalDate currentDate,
+                                              @Param("currentTime") LocalTime currentTime);
+
+    /** Enabled deals that are running now or may still start, whatever the time of day. */
+    @Query("SELECT d FROM Deals d WHERE d.isActive = true AND (d.endDate >= :currentDate OR d.startDate >= :currentDate)")
+    List<Deals> findUnfinishedDeals(@Param("currentDate") LocalDate currentDate);
+
     Optional<Deals> findById(int id);
-    
-    @Query("SELECT DISTINCT d FROM Deals d LEFT JOIN FETCH d.products p WHERE p.id = :productId " +
-            "AND d.isActive = true AND d.endDate >= :currentDate")
-    List<Deals> findActiveDealsForProduct(@Param("productId") int productId, 
-                                          @Param("currentDate") java.util.Date currentDate);
+
+    @Query("SELECT NEW com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO(d.id, d.imageType, d.imageContentLength, d.imageContentHash) " +
+            "FROM Deals d WHERE d.id = :id AND d.imageType IS NOT NULL")
+    Optional<ImageMetadataDTO> findImageMetadataById(@Param("id") int id);
 }
\ No newline at end of file
@@ -1,22 +1,31 @@
 package com.prathamesh.ShoppingBackend.repository;
 
 import com.prathamesh.ShoppingBackend.model.Orders;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Repository
-public interface OrderRepo extends JpaRepository<Orders, Long> {
-    
+public interface OrderRepo extends JpaRepository<Orders, Long>, OrderRepoCustom {
+
+    // Live and archived orders together, for figures that cover all history
+    String ALL_ORDERS = "(SELECT total_amount, status, created_at FROM orders " +
+                        "UNION ALL SELECT total_amount, status, created_at FROM orders_archive) o";
+
     @Query("SELECT COUNT(DISTINCT o.userId) FROM Orders o WHERE o.createdAt >= :date")
     long countDistinctUsersSince(@Param("date") LocalDateTime date);
     
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Orders o")
+    @Query(value = "SELECT COALESCE(SUM(o.total_amount), 0.0) FROM " + ALL_ORDERS, nativeQuery = true)
     double calculateTotalRevenue();
+
+    @Query(value = "SELECT COUNT(*) FROM " + ALL_ORDERS, nativeQuery = true)
+    long countIncludingArchived();
     
     @Query("SELECT NEW map(CAST(o.createdAt as date) as date, " +
            "COUNT(o) as orderCount, " +
@@ -27,18 +36,25 @@ public interface OrderRepo extends JpaRepository<Orders, Long> {
            "ORDER BY date ASC")
     List<Map<String, Object>> getDailySalesSince(@Param("date") LocalDateTime date);
 
+    @EntityGraph(attributePaths = {"items", "address"})
     List<Orders> findByUserId(Long userId);
 
+    /** Orders with their items and address loaded in the same query, in no particular order. */
+    @EntityGraph(attributePaths = {"items", "address"})
+    @Query("SELECT o FROM Orders o WHERE o.id IN :ids")
+    List<Orders> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT COUNT(o) FROM Orders o WHERE o.createdAt BETWEEN :start AND :end")
     long countByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT COUNT(o) FROM Orders o WHERE o.createdAt < :date")
+    @Query(value = "SELECT COUNT(*) FROM " + ALL_ORDERS + " WHERE o.created_at < :date", nativeQuery = true)
     long countByCreatedAtBefore(@Param("date") LocalDateTime date);
 
     @Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Orders o WHERE o.createdAt BETWEEN :start AND :end")
     double findTotalAmountByOrderDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Orders o WHERE o.createdAt < :date")
+    @Query(value = "SELECT COALESCE(SUM(o.total_amount), 0.0) FROM " + ALL_ORDERS + " WHERE o.created_at < :date",
+           nativeQuery = true)
     double findTotalAmountByOrderDateBefore(@Param("date") LocalDateTime date);
 
     @Query("SELECT NEW map(o.status as status, COUNT(o) as count) " +
@@ -47,9 +63,11 @@ public interface OrderRepo extends JpaRepository<Orders, Long> {
            "GROUP BY o.status")
     List<Map<String, Object>> getOrderCountByStatus(@Param("userId") Long userId);
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Orders o WHERE o.status = 'CANCELLED'")
+    @Query(value = "SELECT COALESCE(SUM(o.total_amount), 0.0) FROM " + ALL_ORDERS + " WHERE o.status = 'CANCELLED'",
+           nativeQuery = true)
     double calculateCancelledRevenue();
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Orders o WHERE o.status = :status")
+    @Query(value = "SELECT COALESCE(SUM(o.total_amount), 0.0) FROM " + ALL_ORDERS + " WHERE o.status = :status",
+           nativeQuery = true)
     Double calculateRevenueByStatus(@Param("status") String status);
 }
\ No newline at end of file
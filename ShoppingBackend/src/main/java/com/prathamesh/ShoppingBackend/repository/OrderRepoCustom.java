@@ -0,0 +1,33 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+
+import com.prathamesh.ShoppingBackend.model.Orders.OrderStatus;
+
+public interface OrderRepoCustom {
+
+    /** Order search criteria; null fields are not filtered on. Date bounds are [from, to). */
+    record Filter(Long userId, OrderStatus status, LocalDateTime createdFrom, LocalDateTime createdTo,
+                  BigDecimal minAmount, BigDecimal maxAmount) {
+
+        public static Filter forUser(Long userId, OrderStatus status) {
+            return new Filter(userId, status, null, null, null, null);
+        }
+    }
+
+    /**
+     * Keyset page of matching order ids, newest first with id as tie-breaker.
+     * Pass a null {@code afterId} for the first page; otherwise ids strictly after
+     * ({@code afterCreatedAt}, {@code afterId}) are returned.
+     */
+    List<Long> findPageIds(Filter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /** Exact number of matching orders, but stops counting once it passes {@code cap}. */
+    long countUpTo(Filter filter, long cap);
+
+    /** The planner's row estimate for the filter, or empty where the database can't provide one cheaply. */
+    OptionalLong estimateCount(Filter filter);
+}
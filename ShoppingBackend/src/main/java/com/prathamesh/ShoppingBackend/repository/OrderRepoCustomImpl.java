@@ -0,0 +1,115 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Native SQL so the same predicate can be counted with a LIMIT and handed to EXPLAIN;
+ * every column it touches is covered by the orders indexes in db-indexes.sql.
+ */
+public class OrderRepoCustomImpl implements OrderRepoCustom {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public List<Long> findPageIds(Filter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT o.id FROM orders o WHERE ").append(where(filter, params));
+        if (afterId != null) {
+            // Row-value form, so the (…, created_at DESC, id DESC) indexes serve it as a range bound
+            sql.append(" AND (o.created_at, o.id) < (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC");
+
+        Query query = bind(entityManager.createNativeQuery(sql.toString()), params).setMaxResults(limit);
+        List<Long> ids = new ArrayList<>();
+        for (Object id : query.getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    @Override
+    public long countUpTo(Filter filter, long cap) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 FROM orders o WHERE " + where(filter, params)
+                + " LIMIT " + (cap + 1) + ") matched";
+        return ((Number) bind(entityManager.createNativeQuery(sql), params).getSingleResult()).longValue();
+    }
+
+    @Override
+    public OptionalLong estimateCount(Filter filter) {
+        if (!isPostgres()) {
+            return OptionalLong.empty();
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM orders o WHERE " + where(filter, params);
+        Object plan = bind(entityManager.createNativeQuery(sql), params).getSingleResult();
+        Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan));
+        return matcher.find() ? OptionalLong.of(Long.parseLong(matcher.group(1))) : OptionalLong.empty();
+    }
+
+    private static String where(Filter filter, Map<String, Object> params) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("1 = 1");
+        if (filter.userId() != null) {
+            conditions.add("o.user_id = :userId");
+            params.put("userId", filter.userId());
+        }
+        if (filter.status() != null) {
+            conditions.add("o.status = :status");
+            params.put("status", filter.status().name());
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("o.created_at >= :createdFrom");
+            params.put("createdFrom", filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("o.created_at < :createdTo");
+            params.put("createdTo", filter.createdTo());
+        }
+        if (filter.minAmount() != null) {
+            conditions.add("o.total_amount >= :minAmount");
+            params.put("minAmount", filter.minAmount());
+        }
+        if (filter.maxAmount() != null) {
+            conditions.add("o.total_amount <= :maxAmount");
+            params.put("maxAmount", filter.maxAmount());
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private static Query bind(Query query, Map<String, Object> params) {
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.unwrap(Session.class).doReturningWork(
+                    c -> "PostgreSQL".equals(c.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -1,13 +1,32 @@
 package com.prathamesh.ShoppingBackend.repository;
 
+import com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO;
 import com.prathamesh.ShoppingBackend.model.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Integer> {
     List<ProductImage> findByProductId(int productId);
     void deleteByProductId(int productId);
-}
\ No newline at end of file
+
+    @Query("SELECT NEW com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO(i.id, i.imageType, i.contentLength, i.contentHash) " +
+           "FROM ProductImage i WHERE i.id = :id")
+    Optional<ImageMetadataDTO> findMetadataById(@Param("id") int id);
+
+    /** Image rows without their data: id, product id, name, type, content length, content hash. */
+    @Query("SELECT i.id, i.product.id, i.imageName, i.imageType, i.contentLength, i.contentHash " +
+           "FROM ProductImage i WHERE i.product.id IN :productIds ORDER BY i.id")
+    List<Object[]> findImageHeadersByProductIds(@Param("productIds") Collection<Integer> productIds);
+
+    @Modifying
+    @Query("UPDATE ProductImage i SET i.derivativesFailed = true WHERE i.id = :id")
+    void markDerivativesFailed(@Param("id") int id);
+}
@@ -0,0 +1,33 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant.Variant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductImageVariantRepo extends JpaRepository<ProductImageVariant, Integer> {
+
+    @Query("SELECT NEW com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO(v.id, v.imageType, v.contentLength, v.contentHash) " +
+           "FROM ProductImageVariant v WHERE v.image.id = :imageId AND v.variant = :variant")
+    Optional<ImageMetadataDTO> findMetadata(@Param("imageId") int imageId, @Param("variant") Variant variant);
+
+    @Query("SELECT NEW com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO(v.id, v.imageType, v.contentLength, v.contentHash) " +
+           "FROM ProductImageVariant v WHERE v.id = :id")
+    Optional<ImageMetadataDTO> findMetadataById(@Param("id") int id);
+
+    @Modifying
+    @Query("DELETE FROM ProductImageVariant v WHERE v.image.id = :imageId")
+    void deleteByImageId(@Param("imageId") int imageId);
+
+    @Query("SELECT i.id FROM ProductImage i WHERE i.derivativesFailed = false AND NOT EXISTS " +
+           "(SELECT v.id FROM ProductImageVariant v WHERE v.image = i) ORDER BY i.id")
+    List<Integer> findImageIdsWithoutVariants();
+}
@@ -4,23 +4,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import com.prathamesh.ShoppingBackend.Dto.ProductPriceDTO;
 import com.prathamesh.ShoppingBackend.model.Orders;
 import com.prathamesh.ShoppingBackend.model.Product;
 
 @Repository
-public interface ProductRepo extends JpaRepository<Product, Integer> {
-
-    @Query("SELECT p FROM Product p WHERE " +
-            "LOWER(p.productName) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-            "LOWER(p.brand) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-            "LOWER(p.category) LIKE LOWER(CONCAT('%', :searchQuery, '%'))")
-    List<Product> searchProduct(@Param("searchQuery") String searchQuery);
+public interface ProductRepo extends JpaRepository<Product, Integer>, ProductRepoCustom {
 
     List<Product> findByProductNameContainingOrDescContaining(String searchQuery, String searchQuery2);
 
@@ -78,4 +81,25 @@ public interface ProductRepo extends JpaRepository<Product, Integer> {
     @Query("SELECT p FROM Product p WHERE p.quantity < :threshold")
     List<Product> findLowStockProducts(@Param("threshold") int threshold);
 
+    /** Price, availability and best active deal discount for each product, in one round trip. */
+    @Query("SELECT NEW com.prathamesh.ShoppingBackend.Dto.ProductPriceDTO(p.id, p.price, p.available, MAX(d.discountPercentage)) " +
+            "FROM Product p LEFT JOIN p.deals d ON d.isActive = true " +
+            "AND ((" +
+            "  (d.startDate < :currentDate AND d.endDate > :currentDate) " +
+            "  OR (d.startDate = :currentDate AND d.startTime <= :currentTime) " +
+            "  OR (d.endDate = :currentDate AND d.endTime >= :currentTime)" +
+            ")) " +
+            "WHERE p.id IN :ids GROUP BY p.id, p.price, p.available")
+    List<ProductPriceDTO> findPrices(@Param("ids") Collection<Integer> ids,
+                                     @Param("currentDate") LocalDate currentDate,
+                                     @Param("currentTime") LocalTime currentTime);
+
+    /** One keyset page of the catalog in id order, for exports that read it a page at a time. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findPageAfter(@Param("afterId") int afterId, Limit limit);
+
 }
\ No newline at end of file
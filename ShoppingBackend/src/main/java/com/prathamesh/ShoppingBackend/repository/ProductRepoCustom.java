@@ -0,0 +1,33 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+
+public interface ProductRepoCustom {
+
+    enum SortField {
+        ID("p.id"),
+        PRICE("p.price"),
+        RELEASE_DATE("p.releaseDate");
+
+        private final String path;
+
+        SortField(String path) {
+            this.path = path;
+        }
+
+        public String getPath() { return path; }
+    }
+
+    /**
+     * Keyset page of product summaries ordered by {@code sort} with id as tie-breaker.
+     * Pass a null {@code afterId} for the first page; otherwise rows strictly after
+     * ({@code afterValue}, {@code afterId}) are returned. Nulls always sort last.
+     */
+    List<ProductSummaryDTO> findSummaries(SortField sort, boolean descending,
+                                          Object afterValue, Integer afterId, int limit);
+
+    List<ProductSummaryDTO> findSummariesByIds(Collection<Integer> ids);
+}
@@ -0,0 +1,81 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class ProductRepoCustomImpl implements ProductRepoCustom {
+
+    private static final String SUMMARY_SELECT =
+            "SELECT NEW com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO(" +
+            "p.id, p.productName, p.brand, p.category, p.price, p.available, p.quantity, p.releaseDate, " +
+            "(SELECT MIN(i.id) FROM ProductImage i WHERE i.product = p)) " +
+            "FROM Product p ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Pages in two phases so that each query is a plain range on the (column, id) index: rows with a value
+     * come first, and once they run out the trailing block of null keys follows in id order. A cursor whose
+     * value is null is already inside that block.
+     */
+    @Override
+    public List<ProductSummaryDTO> findSummaries(SortField sort, boolean descending,
+                                                 Object afterValue, Integer afterId, int limit) {
+        String cmp = descending ? "<" : ">";
+        String dir = descending ? "DESC" : "ASC";
+
+        if (sort == SortField.ID) {
+            String jpql = SUMMARY_SELECT + (afterId != null ? "WHERE p.id " + cmp + " :afterId " : "") + "ORDER BY p.id " + dir;
+            TypedQuery<ProductSummaryDTO> query = entityManager.createQuery(jpql, ProductSummaryDTO.class);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            return query.setMaxResults(limit).getResultList();
+        }
+
+        String col = sort.getPath();
+        List<ProductSummaryDTO> page = new ArrayList<>(limit);
+        if (afterId == null || afterValue != null) {
+            StringBuilder jpql = new StringBuilder(SUMMARY_SELECT).append("WHERE ").append(col).append(" IS NOT NULL ");
+            if (afterId != null) {
+                jpql.append("AND (").append(col).append(", p.id) ").append(cmp).append(" (:afterValue, :afterId) ");
+            }
+            jpql.append("ORDER BY ").append(col).append(' ').append(dir).append(", p.id ").append(dir);
+            TypedQuery<ProductSummaryDTO> query = entityManager.createQuery(jpql.toString(), ProductSummaryDTO.class);
+            if (afterId != null) {
+                query.setParameter("afterValue", afterValue).setParameter("afterId", afterId);
+            }
+            page.addAll(query.setMaxResults(limit).getResultList());
+        }
+
+        if (page.size() < limit) {
+            boolean insideNulls = afterId != null && afterValue == null;
+            String jpql = SUMMARY_SELECT + "WHERE " + col + " IS NULL "
+                    + (insideNulls ? "AND p.id " + cmp + " :afterId " : "") + "ORDER BY p.id " + dir;
+            TypedQuery<ProductSummaryDTO> query = entityManager.createQuery(jpql, ProductSummaryDTO.class);
+            if (insideNulls) {
+                query.setParameter("afterId", afterId);
+            }
+            page.addAll(query.setMaxResults(limit - page.size()).getResultList());
+        }
+        return page;
+    }
+
+    @Override
+    public List<ProductSummaryDTO> findSummariesByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(SUMMARY_SELECT + "WHERE p.id IN :ids ORDER BY p.id", ProductSummaryDTO.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.prathamesh.ShoppingBackend.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Selects only the requested scalar columns of an entity and returns each row as an ordered map
+ * keyed by the JSON property name, so the response carries exactly those fields.
+ */
+@Repository
+public class SparseFieldsetRepo {
+
+    /** Whitelisted JSON property names per resource; anything sensitive or non-scalar is left out. */
+    public enum Resource {
+        PRODUCT("Product", Map.of(
+                "id", "id", "productName", "productName", "brand", "brand", "desc", "desc",
+                "category", "category", "releaseDate", "releaseDate", "available", "available",
+                "quantity", "quantity", "price", "price")),
+        ORDER("Orders", Map.of(
+                "id", "id", "userId", "userId", "totalAmount", "totalAmount",
+                "createdAt", "createdAt", "updatedAt", "updatedAt", "status", "status")),
+        DEAL("Deals", Map.ofEntries(
+                Map.entry("id", "id"), Map.entry("title", "title"), Map.entry("description", "description"),
+                Map.entry("discountPercentage", "discountPercentage"), Map.entry("imageType", "imageType"),
+                Map.entry("startDate", "startDate"), Map.entry("endDate", "endDate"),
+                Map.entry("startTime", "startTime"), Map.entry("endTime", "endTime"),
+                Map.entry("active", "isActive"), Map.entry("createdAt", "createdAt"),
+                Map.entry("updatedAt", "updatedAt"), Map.entry("createdBy", "createdBy"),
+                Map.entry("updatedBy", "updatedBy"))),
+        USER("User", Map.of(
+                "id", "id", "userName", "userName", "email", "email", "firstName", "firstName",
+                "lastName", "lastName", "phoneNumber", "phoneNumber", "createdAt", "createdAt",
+                "updatedAt", "updatedAt", "role", "role"));
+
+        private final String entity;
+        private final Map<String, String> attributes;
+
+        Resource(String entity, Map<String, String> attributes) {
+            this.entity = entity;
+            this.attributes = attributes;
+        }
+
+        /**
+         * Parses a comma separated {@code fields} parameter into the selected property names.
+         * The id is always included first so clients can correlate rows.
+         */
+        public List<String> parseFields(String fields) {
+            List<String> selected = new ArrayList<>();
+            selected.add("id");
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty() || selected.contains(name)) continue;
+                if (!attributes.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "' for " + name().toLowerCase());
+                }
+                selected.add(name);
+            }
+            return selected;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param attribute optional entity attribute to filter on; rows where it equals {@code value}
+     */
+    public List<Map<String, Object>> findFields(Resource resource, List<String> fields, String attribute, Object value) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) jpql.append(", ");
+            jpql.append("e.").append(resource.attributes.get(fields.get(i)));
+        }
+        jpql.append(" FROM ").append(resource.entity).append(" e");
+        if (attribute != null) {
+            jpql.append(" WHERE e.").append(attribute).append(" = :value");
+        }
+        jpql.append(" ORDER BY e.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (attribute != null) {
+            query.setParameter("value", value);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                item.put(fields.get(i), row[i]);
+            }
+            result.add(item);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.model.Deals;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.DealsRepo;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The deal that applies to each product right now, so pricing a cart is a map lookup per item rather
+ * than a query. When a product is in several active deals the largest discount wins. The index holds every
+ * enabled deal that has not finished, with its window checked on each lookup, so a deal starts and ends on
+ * the second just as it does for checkout. It is an immutable snapshot, swapped whole when deals change and
+ * periodically to drop finished deals.
+ */
+@Service
+public class ActiveDealIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveDealIndex.class);
+
+    private static final Comparator<Deals> BEST_FIRST = Comparator.comparing(Deals::getDiscountPercentage)
+            .reversed()
+            .thenComparingInt(Deals::getId);
+
+    private final DealsRepo dealsRepo;
+    // Each product's deals, best first
+    private volatile Map<Integer, List<Deals>> dealsByProductId = Map.of();
+
+    public ActiveDealIndex(DealsRepo dealsRepo) {
+        this.dealsRepo = dealsRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.deals.index-refresh-ms:60000}", initialDelayString = "${app.deals.index-refresh-ms:60000}")
+    public void refresh() {
+        Map<Integer, List<Deals>> index = new HashMap<>();
+        for (Deals deal : dealsRepo.findUnfinishedDeals(LocalDate.now())) {
+            Deals summary = summaryOf(deal);
+            for (Product product : deal.getProducts()) {
+                index.computeIfAbsent(product.getId(), id -> new ArrayList<>()).add(summary);
+            }
+        }
+        index.replaceAll((productId, deals) -> deals.stream().sorted(BEST_FIRST).toList());
+        dealsByProductId = Map.copyOf(index);
+    }
+
+    public void refreshAfterCommit() {
+        AfterCommit.run(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.error("Failed to refresh active deal index", e);
+            }
+        });
+    }
+
+    /** The applicable deal for each of {@code productIds} that has one. */
+    public Map<Integer, Deals> dealsFor(Collection<Integer> productIds) {
+        Map<Integer, List<Deals>> index = dealsByProductId;
+        LocalDate date = LocalDate.now();
+        LocalTime time = LocalTime.now();
+        Map<Integer, Deals> deals = new HashMap<>();
+        for (Integer productId : productIds) {
+            for (Deals deal : index.getOrDefault(productId, List.of())) {
+                if (isRunning(deal, date, time)) {
+                    deals.put(productId, deal);
+                    break;
+                }
+            }
+        }
+        return deals;
+    }
+
+    // The same window as DealsRepo.findActiveDeals and ProductRepo.findPrices
+    private static boolean isRunning(Deals deal, LocalDate date, LocalTime time) {
+        return (deal.getStartDate().isBefore(date) && deal.getEndDate().isAfter(date))
+                || (deal.getStartDate().equals(date) && !deal.getStartTime().isAfter(time))
+                || (deal.getEndDate().equals(date) && !deal.getEndTime().isBefore(time));
+    }
+
+    // Detached and shared between requests, so it carries neither the product list nor the image bytes
+    private static Deals summaryOf(Deals deal) {
+        Deals summary = new Deals();
+        summary.setId(deal.getId());
+        summary.setTitle(deal.getTitle());
+        summary.setDescription(deal.getDescription());
+        summary.setDiscountPercentage(deal.getDiscountPercentage());
+        summary.setImageType(deal.getImageType());
+        summary.setImageContentLength(deal.getImageContentLength());
+        summary.setImageContentHash(deal.getImageContentHash());
+        summary.setStartDate(deal.getStartDate());
+        summary.setEndDate(deal.getEndDate());
+        summary.setStartTime(deal.getStartTime());
+        summary.setEndTime(deal.getEndTime());
+        summary.setActive(deal.isActive());
+        summary.setCreatedAt(deal.getCreatedAt());
+        summary.setUpdatedAt(deal.getUpdatedAt());
+        return summary;
+    }
+}
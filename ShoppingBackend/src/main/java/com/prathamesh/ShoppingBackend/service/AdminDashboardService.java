@@ -38,7 +38,7 @@ public class AdminDashboardService {
             long activeUsers = orderRepo.countDistinctUsersSince(thirtyDaysAgo);
             
             // Get total orders
-            long totalOrders = orderRepo.count();
+            long totalOrders = orderRepo.countIncludingArchived();
             
             // Get total revenue
             Double totalRevenue = orderRepo.calculateTotalRevenue();
@@ -43,7 +43,7 @@ public class AnalyticsService {
 
         // Calculate stats
         long totalUsers = userRepo.count();
-        long totalOrders = orderRepo.count();
+        long totalOrders = orderRepo.countIncludingArchived();
         BigDecimal totalRevenue = BigDecimal.valueOf(orderRepo.calculateTotalRevenue());
         long totalProducts = productRepo.count();
 
@@ -2,7 +2,10 @@ package com.prathamesh.ShoppingBackend.service;
 
 import com.prathamesh.ShoppingBackend.Dto.CartDTO;
 import com.prathamesh.ShoppingBackend.Dto.CartItemDTO;
+import com.prathamesh.ShoppingBackend.Dto.CartOperation;
 import com.prathamesh.ShoppingBackend.Dto.ProductDTO;
+import com.prathamesh.ShoppingBackend.Exception.InsufficientStockException;
+import com.prathamesh.ShoppingBackend.Exception.ProductNotFoundException;
 import com.prathamesh.ShoppingBackend.model.*;
 import com.prathamesh.ShoppingBackend.repository.CartRepo;
 import com.prathamesh.ShoppingBackend.repository.ProductRepo;
@@ -10,9 +13,11 @@ import com.prathamesh.ShoppingBackend.repository.ProductRepo;
 import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Date;
 import java.util.ArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,12 +25,15 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CartService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
     @Autowired
     private CartRepo cartRepo;
 
@@ -33,36 +41,54 @@ public class CartService {
     private ProductRepo productRepo;
 
     @Autowired
-    private com.prathamesh.ShoppingBackend.repository.DealsRepo dealsRepo;
+    private ActiveDealIndex activeDealIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private HotCartStore hotCarts;
+
+    @Value("${app.cart.batch.max-operations:100}")
+    private int maxBatchOperations;
 
     public CartDTO getCart(User user) {
+        if (hotCarts.isEnabled()) {
+            return convertToCartDTO(hotCarts.get(user.getId()));
+        }
         try {
             Cart cart = cartRepo.findByUser(user).orElseGet(() -> createNewCart(user));
             CartDTO cartDTO = convertToCartDTO(cart);
             return cartDTO;
         } catch (Exception e) {
-            System.err.println("Error fetching cart: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to fetch cart of user {}", user.getId(), e);
             throw new RuntimeException("Failed to fetch cart: " + e.getMessage());
         }
     }
 
     public CartDTO addToCart(User user, int productId, int quantity) {
+        if (hotCarts.isEnabled()) {
+            try {
+                return convertToCartDTO(addToHotCart(user, productId, quantity));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to add item to cart: " + e.getMessage());
+            }
+        }
         try {
             Cart cart = cartRepo.findByUser(user).orElseGet(() -> createNewCart(user));
             Product product = productRepo.findById(productId)
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
-            // Validate stock availability
-            if (product.getQuantity() < quantity) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getProductName());
-            }
-
             // Check if the item already exists in the cart
             Optional<CartItem> existingItem = cart.getItems().stream()
                     .filter(item -> item.getProduct().getId() == productId)
                     .findFirst();
 
+            requireStock(product, quantity + existingItem.map(CartItem::getQuantity).orElse(0));
+
             if (existingItem.isPresent()) {
                 // Update quantity if the item exists
                 existingItem.get().setQuantity(existingItem.get().getQuantity() + quantity);
@@ -89,27 +115,12 @@ public class CartService {
     }
 
     private CartDTO convertToCartDTO(Cart cart) {
-        CartDTO cartDTO = new CartDTO();
-
-        // Fetch all active deals once to avoid N+1 queries
-        java.util.Map<Integer, Deals> productDealsMap = new java.util.HashMap<>();
-        try {
-            cart.getItems().stream()
+        // One lookup in the shared active-deal index for every product in the cart
+        java.util.Map<Integer, Deals> productDealsMap = activeDealIndex.dealsFor(cart.getItems().stream()
                 .filter(Objects::nonNull)
                 .filter(item -> item.getProduct() != null)
-                .forEach(item -> {
-                    try {
-                        List<Deals> deals = dealsRepo.findActiveDealsForProduct(item.getProduct().getId(), new Date());
-                        if (!deals.isEmpty()) {
-                            productDealsMap.put(item.getProduct().getId(), deals.get(0));
-                        }
-                    } catch (Exception e) {
-                        // Skip if deal fetch fails
-                    }
-                });
-        } catch (Exception e) {
-            // Continue without deals if fetch fails
-        }
+                .map(item -> item.getProduct().getId())
+                .toList());
 
         // Convert cart items to DTOs
         List<CartItemDTO> validItems = cart.getItems().stream()
@@ -118,13 +129,73 @@ public class CartService {
                 .map(item -> convertToCartItemDTO(item, productDealsMap))
                 .collect(Collectors.toList());
 
-        cartDTO.setItems(validItems);
-        cartDTO.setTotalItems(validItems.size());
-        cartDTO.setTotalPrice(calculateTotalPrice(validItems).doubleValue());
+        return toCartDTO(validItems);
+    }
 
+    private CartDTO toCartDTO(List<CartItemDTO> items) {
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setItems(items);
+        cartDTO.setTotalItems(items.size());
+        cartDTO.setTotalPrice(calculateTotalPrice(items).doubleValue());
         return cartDTO;
     }
 
+    // Products come from the product cache and deals from the active-deal index, so no query is needed
+    private CartDTO convertToCartDTO(HotCartStore.HotCart cart) {
+        List<Integer> productIds = cart.lines().stream().map(HotCartStore.Line::productId).toList();
+        Map<Integer, Product> products = new HashMap<>();
+        productService.getProductsByIds(productIds).forEach(product -> products.put(product.getId(), product));
+        Map<Integer, Deals> deals = activeDealIndex.dealsFor(productIds);
+
+        // Lines whose product has since been deleted are not shown
+        List<CartItemDTO> items = cart.lines().stream()
+                .filter(line -> products.containsKey(line.productId()))
+                .map(line -> new CartItemDTO(line.id(),
+                        convertToProductDTO(products.get(line.productId()), deals.get(line.productId())),
+                        line.quantity()))
+                .collect(Collectors.toList());
+        return toCartDTO(items);
+    }
+
+    private HotCartStore.HotCart addToHotCart(User user, int productId, int quantity) {
+        Product product = productService.getProductById(productId);
+        return hotCarts.update(user.getId(), current -> {
+            List<HotCartStore.Line> lines = new ArrayList<>(current.lines());
+            int index = indexOf(lines, line -> line.productId() == productId);
+            int requested = quantity + (index < 0 ? 0 : lines.get(index).quantity());
+            requireStock(product, requested);
+            if (index < 0) {
+                lines.add(hotCarts.newLine(productId, quantity));
+            } else {
+                lines.set(index, new HotCartStore.Line(lines.get(index).id(), productId, requested));
+            }
+            return new HotCartStore.HotCart(lines);
+        });
+    }
+
+    private HotCartStore.HotCart updateHotCartItem(User user, long itemId, int quantity) {
+        return hotCarts.update(user.getId(), current -> {
+            List<HotCartStore.Line> lines = new ArrayList<>(current.lines());
+            int index = indexOf(lines, line -> line.id() == itemId);
+            if (index < 0) {
+                throw new RuntimeException("Item not found in cart");
+            }
+            HotCartStore.Line line = lines.get(index);
+            requireStock(productService.getProductById(line.productId()), line.quantity() + quantity);
+            lines.set(index, new HotCartStore.Line(line.id(), line.productId(), line.quantity() + quantity));
+            return new HotCartStore.HotCart(lines);
+        });
+    }
+
+    private static <T> int indexOf(List<T> lines, Predicate<T> match) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (match.test(lines.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private CartItemDTO convertToCartItemDTO(CartItem item) {
         CartItemDTO dto = new CartItemDTO();
         dto.setId(item.getId());
@@ -152,30 +223,32 @@ public class CartService {
         return dto;
     }
 
-    public CartDTO removeFromCart(User user, int cartItemId) {
-        try {
-            System.out.println("Removing cart item with ID: " + cartItemId + " for user: " + user.getUserName()); // Debugging
-            Cart cart = cartRepo.findByUser(user).orElseThrow(() -> new RuntimeException("Cart not found"));
-    
-            // Find the item in the cart by cartItemId
-            boolean itemExists = cart.getItems().removeIf(item -> item.getId() == cartItemId);
-    
-            if (!itemExists) {
-                System.out.println("Item not found in cart: " + cartItemId); // Debugging
-                throw new RuntimeException("Item with ID " + cartItemId + " not found in cart.");
-            }
-    
-            cartRepo.save(cart);
-            System.out.println("Cart saved successfully"); // Debugging
-            return convertToCartDTO(cart); // Return the updated cart as a DTO
-        } catch (Exception e) {
-            System.err.println("Error in removeFromCart: " + e.getMessage()); // Debugging
-            e.printStackTrace(); // Debugging
-            throw e; // Re-throw the exception to be handled by the controller
+    public CartDTO removeFromCart(User user, long cartItemId) {
+        if (hotCarts.isEnabled()) {
+            return convertToCartDTO(hotCarts.update(user.getId(), current -> {
+                List<HotCartStore.Line> lines = new ArrayList<>(current.lines());
+                if (!lines.removeIf(line -> line.id() == cartItemId)) {
+                    throw new RuntimeException("Item with ID " + cartItemId + " not found in cart.");
+                }
+                return new HotCartStore.HotCart(lines);
+            }));
         }
+        Cart cart = cartRepo.findByUser(user).orElseThrow(() -> new RuntimeException("Cart not found"));
+        if (!cart.getItems().removeIf(item -> item.getId() == cartItemId)) {
+            throw new RuntimeException("Item with ID " + cartItemId + " not found in cart.");
+        }
+        cartRepo.save(cart);
+        return convertToCartDTO(cart);
     }
 
-    public CartDTO updateCartItem(User user, int itemId, int quantity) {
+    public CartDTO updateCartItem(User user, long itemId, int quantity) {
+        if (hotCarts.isEnabled()) {
+            try {
+                return convertToCartDTO(updateHotCartItem(user, itemId, quantity));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to update item quantity: " + e.getMessage());
+            }
+        }
         try {
             Cart cart = cartRepo.findByUser(user).orElseThrow(() -> new RuntimeException("Cart not found"));
             CartItem item = cart.getItems().stream()
@@ -183,11 +256,7 @@ public class CartService {
                     .findFirst()
                     .orElseThrow(() -> new RuntimeException("Item not found in cart"));
 
-            // Validate stock availability
-            Product product = item.getProduct();
-            if (product.getQuantity() < (item.getQuantity() + quantity)) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getProductName());
-            }
+            requireStock(item.getProduct(), item.getQuantity() + quantity);
 
             // Update the item quantity
             item.setQuantity(item.getQuantity() + quantity);
@@ -199,7 +268,155 @@ public class CartService {
         }
     }
 
+    /**
+     * Applies {@code operations} in order as one change: the cart is read once, stock is checked once against
+     * the final quantities, and the cart is written once. If any operation is invalid or any product lacks
+     * stock, nothing is applied.
+     */
+    public CartDTO applyOperations(User user, List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new IllegalArgumentException("At most " + maxBatchOperations + " operations are allowed per request");
+        }
+        if (hotCarts.isEnabled()) {
+            return convertToCartDTO(hotCarts.update(user.getId(), current -> {
+                List<CartLine> before = current.lines().stream()
+                        .map(line -> new CartLine(line.id(), line.productId(), line.quantity()))
+                        .toList();
+                List<CartLine> after = applyOperations(before, operations);
+                checkStock(before, after);
+                return new HotCartStore.HotCart(after.stream()
+                        .map(line -> line.itemId() == null
+                                ? hotCarts.newLine(line.productId(), line.quantity())
+                                : new HotCartStore.Line(line.itemId(), line.productId(), line.quantity()))
+                        .toList());
+            }));
+        }
+
+        Cart cart = cartRepo.findByUser(user).orElseGet(() -> createNewCart(user));
+        List<CartLine> before = cart.getItems().stream()
+                .map(item -> new CartLine(item.getId(), item.getProduct().getId(), item.getQuantity()))
+                .toList();
+        List<CartLine> after = applyOperations(before, operations);
+        Map<Integer, Product> products = checkStock(before, after);
+
+        Map<Long, Integer> kept = new HashMap<>();
+        after.stream().filter(line -> line.itemId() != null).forEach(line -> kept.put(line.itemId(), line.quantity()));
+        cart.getItems().removeIf(item -> !kept.containsKey(item.getId()));
+        cart.getItems().forEach(item -> item.setQuantity(kept.get(item.getId())));
+        for (CartLine line : after) {
+            if (line.itemId() == null) {
+                CartItem newItem = new CartItem();
+                newItem.setProduct(products.get(line.productId()));
+                newItem.setQuantity(line.quantity());
+                newItem.setCart(cart);
+                cart.getItems().add(newItem);
+            }
+        }
+        return convertToCartDTO(cartRepo.save(cart));
+    }
+
+    /** A cart line while a batch is applied; itemId is null for a line the batch added. */
+    private record CartLine(Long itemId, int productId, int quantity) {
+    }
+
+    private static List<CartLine> applyOperations(List<CartLine> current, List<CartOperation> operations) {
+        List<CartLine> lines = new ArrayList<>(current);
+        for (int n = 0; n < operations.size(); n++) {
+            CartOperation op = operations.get(n);
+            if (op == null || op.getType() == null) {
+                throw new IllegalArgumentException("Operation " + n + ": type is required");
+            }
+            Integer quantity = op.getQuantity();
+            switch (op.getType()) {
+                case ADD -> {
+                    if (op.getProductId() == null || quantity == null || quantity <= 0) {
+                        throw new IllegalArgumentException("Operation " + n + ": ADD needs a productId and a positive quantity");
+                    }
+                    int productId = op.getProductId();
+                    int index = indexOf(lines, line -> line.productId() == productId);
+                    if (index < 0) {
+                        lines.add(new CartLine(null, productId, quantity));
+                    } else {
+                        CartLine line = lines.get(index);
+                        lines.set(index, new CartLine(line.itemId(), line.productId(), line.quantity() + quantity));
+                    }
+                }
+                case SET_QUANTITY -> {
+                    if (quantity == null || quantity < 0) {
+                        throw new IllegalArgumentException("Operation " + n + ": SET_QUANTITY needs a quantity of 0 or more");
+                    }
+                    int index = indexOfTarget(lines, op, n);
+                    CartLine line = lines.get(index);
+                    if (quantity == 0) {
+                        lines.remove(index);
+                    } else {
+                        lines.set(index, new CartLine(line.itemId(), line.productId(), quantity));
+                    }
+                }
+                case REMOVE -> lines.remove(indexOfTarget(lines, op, n));
+            }
+        }
+        return lines;
+    }
+
+    private static int indexOfTarget(List<CartLine> lines, CartOperation op, int n) {
+        int index;
+        if (op.getItemId() != null) {
+            long itemId = op.getItemId();
+            index = indexOf(lines, line -> line.itemId() != null && line.itemId() == itemId);
+        } else if (op.getProductId() != null) {
+            int productId = op.getProductId();
+            index = indexOf(lines, line -> line.productId() == productId);
+        } else {
+            throw new IllegalArgumentException("Operation " + n + ": " + op.getType() + " needs an itemId or a productId");
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Operation " + n + ": item not found in cart");
+        }
+        return index;
+    }
+
+    // One pass over the lines whose quantity went up and lines not saved yet, with their products fetched together
+    private Map<Integer, Product> checkStock(List<CartLine> before, List<CartLine> after) {
+        Map<Integer, Integer> previous = new HashMap<>();
+        before.forEach(line -> previous.put(line.productId(), line.quantity()));
+        List<CartLine> needed = after.stream()
+                .filter(line -> line.itemId() == null || line.quantity() > previous.getOrDefault(line.productId(), 0))
+                .toList();
+        if (needed.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, Product> products = new HashMap<>();
+        productService.getProductsByIds(needed.stream().map(CartLine::productId).toList())
+                .forEach(product -> products.put(product.getId(), product));
+        for (CartLine line : needed) {
+            Product product = products.get(line.productId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product not found: " + line.productId());
+            }
+            if (line.quantity() > previous.getOrDefault(line.productId(), 0)) {
+                requireStock(product, line.quantity());
+            }
+        }
+        return products;
+    }
+
+    // Advisory only: stock is reserved atomically at checkout, not while it sits in a cart
+    private void requireStock(Product product, int quantity) {
+        if (inventoryService.availableStock(product) < quantity) {
+            throw new InsufficientStockException("Insufficient stock for product: " + product.getProductName());
+        }
+    }
+
     public void clearCart(User user) {
+        if (hotCarts.isEnabled()) {
+            hotCarts.update(user.getId(), current -> HotCartStore.HotCart.EMPTY);
+            return;
+        }
         try {
             Cart cart = cartRepo.findByUser(user).orElseThrow(() -> new RuntimeException("Cart not found"));
             cart.getItems().clear();
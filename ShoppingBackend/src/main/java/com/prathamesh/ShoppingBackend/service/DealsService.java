@@ -24,10 +24,15 @@ public class DealsService {
 
     private final DealsRepo dealsRepo;
     private final ProductRepo productRepo;
+    private final ProductFacetIndex facetIndex;
+    private final ActiveDealIndex activeDealIndex;
 
-    public DealsService(DealsRepo dealsRepo, ProductRepo productRepo) {
+    public DealsService(DealsRepo dealsRepo, ProductRepo productRepo, ProductFacetIndex facetIndex,
+                        ActiveDealIndex activeDealIndex) {
         this.dealsRepo = dealsRepo;
         this.productRepo = productRepo;
+        this.facetIndex = facetIndex;
+        this.activeDealIndex = activeDealIndex;
     }
 
     @Cacheable("deals")
@@ -72,6 +77,8 @@ public class DealsService {
         }
 
         deal.setProducts(managedProducts);
+        facetIndex.refreshDealsAfterCommit();
+        activeDealIndex.refreshAfterCommit();
         return dealsRepo.save(deal);
     }
 
@@ -100,6 +107,8 @@ public class DealsService {
         existingDeal.setEndTime(updatedDeal.getEndTime());
         existingDeal.setActive(updatedDeal.isActive());
 
+        facetIndex.refreshDealsAfterCommit();
+        activeDealIndex.refreshAfterCommit();
         return dealsRepo.save(existingDeal);
     }
 
@@ -110,6 +119,8 @@ public class DealsService {
         Deals deal = dealsRepo.findById(id)
                 .orElseThrow(() -> new DealNotFoundException("Deal not found with id: " + id));
         dealsRepo.delete(deal);
+        facetIndex.refreshDealsAfterCommit();
+        activeDealIndex.refreshAfterCommit();
     }
 
     @Transactional
@@ -127,6 +138,8 @@ public class DealsService {
             deal.setActive(false);
             dealsRepo.save(deal);
         });
+        facetIndex.refreshDealsAfterCommit();
+        activeDealIndex.refreshAfterCommit();
     }
 
     public static void validateDeal(Deals deal) {
@@ -0,0 +1,208 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prathamesh.ShoppingBackend.util.TimeOrderedIdGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-behind cart storage. Active carts live in a bounded in-memory tier keyed by user id and are changed
+ * there; every change also marks the cart dirty, and a flusher writes the latest version of each dirty cart
+ * to cart/cart_item every {@code flush-ms}, so a burst of clicks costs one write. Checkout and shutdown
+ * flush too. Carts are only read from the database when they are not in memory; a dirty cart is kept until
+ * flushed even if the tier evicts it. The tier is per process: with several nodes, requests for one user
+ * must reach the same node. Cart item ids are generated in the application, so they are final before the
+ * first flush.
+ */
+@Service
+public class HotCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotCartStore.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final String LOAD_SQL =
+            "SELECT i.id, i.product_id, i.quantity FROM cart_item i JOIN cart c ON c.id = i.cart_id " +
+            "WHERE c.user_id = ? ORDER BY i.id";
+    private static final String CART_ID_SQL = "SELECT id FROM cart WHERE user_id = ?";
+    private static final String CREATE_CART_SQL = "INSERT INTO cart (user_id) VALUES (?) RETURNING id";
+    private static final String DELETE_OTHERS_SQL = "DELETE FROM cart_item WHERE cart_id = ? AND NOT (id = ANY(?))";
+    // Lines for products deleted since they were added are dropped rather than failing the flush
+    private static final String UPSERT_SQL =
+            "INSERT INTO cart_item (id, cart_id, product_id, quantity) " +
+            "SELECT ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM product WHERE id = ?) " +
+            "ON CONFLICT (id) DO UPDATE SET quantity = EXCLUDED.quantity";
+
+    public record Line(long id, int productId, int quantity) {
+    }
+
+    public record HotCart(List<Line> lines) {
+        public static final HotCart EMPTY = new HotCart(List.of());
+
+        public HotCart {
+            lines = List.copyOf(lines);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final boolean enabled;
+
+    private final Cache<Long, HotCart> carts;
+    private final ConcurrentMap<Long, HotCart> dirty = new ConcurrentHashMap<>();
+    private final ReentrantLock[] updateLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock[] flushLocks = new ReentrantLock[LOCK_STRIPES];
+
+    public HotCartStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        @Value("${app.ids.node-id:0}") int nodeId,
+                        @Value("${app.cart.write-behind.enabled:false}") boolean enabled,
+                        @Value("${app.cart.write-behind.max-carts:10000}") long maxCarts,
+                        @Value("${app.cart.write-behind.idle-expiry:30m}") Duration idleExpiry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idGenerator = new TimeOrderedIdGenerator(nodeId);
+        this.enabled = enabled;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            updateLocks[i] = new ReentrantLock();
+            flushLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** A new cart line, with the id it will keep once saved. */
+    public Line newLine(int productId, int quantity) {
+        return new Line(idGenerator.nextId(), productId, quantity);
+    }
+
+    public HotCart get(long userId) {
+        HotCart pending = dirty.get(userId);
+        return pending != null ? pending : carts.get(userId, this::load);
+    }
+
+    /**
+     * Applies {@code change} to the user's cart and returns the result. Changes to one cart are applied one
+     * at a time; if {@code change} throws, the cart is left as it was.
+     */
+    public HotCart update(long userId, UnaryOperator<HotCart> change) {
+        ReentrantLock lock = stripe(updateLocks, userId);
+        lock.lock();
+        try {
+            HotCart current = get(userId);
+            HotCart next = change.apply(current);
+            if (!next.equals(current)) {
+                carts.put(userId, next);
+                dirty.put(userId, next);
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes the user's cart now if it has unsaved changes, e.g. before checkout. */
+    public void flush(long userId) {
+        if (!enabled || !dirty.containsKey(userId)) {
+            return;
+        }
+        ReentrantLock lock = stripe(flushLocks, userId);
+        lock.lock();
+        try {
+            HotCart cart = dirty.get(userId);
+            if (cart == null) {
+                return;
+            }
+            ownTransaction.executeWithoutResult(status -> persist(userId, cart));
+            // A change made while this was writing stays dirty for the next round
+            dirty.remove(userId, cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-ms:5000}")
+    public void flushAll() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        int failed = 0;
+        for (Long userId : List.copyOf(dirty.keySet())) {
+            try {
+                flush(userId);
+            } catch (Exception e) {
+                failed++;
+                logger.warn("Failed to write cart of user {}, will retry: {}", userId, e.getMessage());
+            }
+        }
+        if (failed > 0) {
+            logger.warn("{} carts could not be written this round", failed);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    private HotCart load(long userId) {
+        List<Line> lines = jdbcTemplate.query(LOAD_SQL,
+                (rs, n) -> new Line(rs.getLong("id"), rs.getInt("product_id"), rs.getInt("quantity")), userId);
+        return lines.isEmpty() ? HotCart.EMPTY : new HotCart(lines);
+    }
+
+    private void persist(long userId, HotCart cart) {
+        List<Long> cartIds = jdbcTemplate.queryForList(CART_ID_SQL, Long.class, userId);
+        long cartId = cartIds.isEmpty()
+                ? jdbcTemplate.queryForObject(CREATE_CART_SQL, Long.class, userId)
+                : cartIds.get(0);
+
+        Long[] keep = cart.lines().stream().map(Line::id).toArray(Long[]::new);
+        jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            try (var ps = con.prepareStatement(DELETE_OTHERS_SQL)) {
+                ps.setLong(1, cartId);
+                ps.setArray(2, con.createArrayOf("bigint", keep));
+                return ps.executeUpdate();
+            }
+        });
+        if (!cart.lines().isEmpty()) {
+            List<Line> lines = new ArrayList<>(cart.lines());
+            jdbcTemplate.batchUpdate(UPSERT_SQL, lines, lines.size(), (ps, line) -> {
+                ps.setLong(1, line.id());
+                ps.setLong(2, cartId);
+                ps.setInt(3, line.productId());
+                ps.setInt(4, line.quantity());
+                ps.setInt(5, line.productId());
+            });
+        }
+    }
+
+    private static ReentrantLock stripe(ReentrantLock[] locks, long userId) {
+        return locks[(Long.hashCode(userId) & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+}
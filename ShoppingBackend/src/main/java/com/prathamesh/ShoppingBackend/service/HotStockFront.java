@@ -0,0 +1,350 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import com.prathamesh.ShoppingBackend.util.TimeOrderedIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory stock for products that are reserved faster than their row lock can be turned around.
+ * A hot product leases a block of units from its row in a short transaction of its own and spreads it over
+ * striped counters, so checkouts take from memory with a CAS instead of queueing on the row.
+ * Blocks are topped up in the background before they run dry; a take gathers units across stripes and the
+ * caller takes whatever memory cannot cover from the row. Leased units go back to the row when a product
+ * cools down or the application stops. Every lease is also recorded in stock_lease, and every take by an
+ * order in stock_lease_use within the order's transaction, so after a crash the node gives back exactly
+ * what it still held when it starts again.
+ */
+@Service
+public class HotStockFront {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockFront.class);
+
+    // Takes up to ? units in one statement and reports how many it got
+    private static final String LEASE_SQL =
+            "UPDATE product p SET quantity = p.quantity - l.take " +
+            "FROM (SELECT id, LEAST(quantity, ?) AS take FROM product WHERE id = ? FOR UPDATE) l " +
+            "WHERE p.id = l.id RETURNING l.take";
+    private static final String RETURN_SQL = "UPDATE product SET quantity = quantity + ? WHERE id = ?";
+    private static final String RECORD_LEASE_SQL =
+            "INSERT INTO stock_lease (node_id, product_id, quantity) VALUES (?, ?, ?) " +
+            "ON CONFLICT (node_id, product_id) DO UPDATE SET quantity = stock_lease.quantity + EXCLUDED.quantity";
+    private static final String REDUCE_LEASE_SQL =
+            "UPDATE stock_lease SET quantity = quantity - ? WHERE node_id = ? AND product_id = ?";
+    private static final String RECORD_USE_SQL =
+            "INSERT INTO stock_lease_use (id, node_id, product_id, quantity) VALUES (?, ?, ?, ?)";
+    private static final String SETTLE_SQL =
+            "WITH used AS (DELETE FROM stock_lease_use WHERE node_id = ? RETURNING product_id, quantity) " +
+            "UPDATE stock_lease l SET quantity = l.quantity - u.quantity " +
+            "FROM (SELECT product_id, SUM(quantity) AS quantity FROM used GROUP BY product_id) u " +
+            "WHERE l.node_id = ? AND l.product_id = u.product_id";
+    // What the node still held when it stopped: leased minus used by orders
+    private static final String RECOVER_SQL =
+            "WITH used AS (" +
+            "  SELECT product_id, SUM(quantity) AS quantity FROM stock_lease_use WHERE node_id = ? GROUP BY product_id" +
+            "), held AS (" +
+            "  DELETE FROM stock_lease WHERE node_id = ? RETURNING product_id, quantity" +
+            ") UPDATE product p SET quantity = p.quantity + h.quantity - COALESCE(u.quantity, 0) " +
+            "FROM held h LEFT JOIN used u ON u.product_id = h.product_id " +
+            "WHERE p.id = h.product_id AND h.quantity <> COALESCE(u.quantity, 0)";
+    private static final String FORGET_USES_SQL = "DELETE FROM stock_lease_use WHERE node_id = ?";
+    private static final String FORGET_PRODUCT_SQL =
+            "WITH uses AS (DELETE FROM stock_lease_use WHERE node_id = ? AND product_id = ?) " +
+            "DELETE FROM stock_lease WHERE node_id = ? AND product_id = ?";
+
+    // Ints per stripe, so neighbouring stripes sit on different cache lines
+    private static final int PADDING = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final Executor executor;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final int nodeId;
+    private final int stripes;
+    private final int leaseSize;
+    private final int hotThreshold;
+
+    private final ConcurrentMap<Integer, Entry> hot = new ConcurrentHashMap<>();
+    private final AtomicBoolean unsettled = new AtomicBoolean();
+    private volatile ConcurrentMap<Integer, LongAdder> demand = new ConcurrentHashMap<>();
+
+    public HotStockFront(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         @Qualifier("taskExecutor") Executor executor,
+                         @Value("${app.ids.node-id:0}") int nodeId,
+                         @Value("${app.inventory.stripes:8}") int stripes,
+                         @Value("${app.inventory.lease-size:100}") int leaseSize,
+                         @Value("${app.inventory.hot-threshold:100}") int hotThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.idGenerator = new TimeOrderedIdGenerator(nodeId);
+        this.nodeId = nodeId;
+        this.stripes = stripes;
+        this.leaseSize = leaseSize;
+        this.hotThreshold = hotThreshold;
+    }
+
+    // Before anything is leased again, so units left over from a previous run are not counted twice
+    @PostConstruct
+    public void recover() {
+        ownTransaction.executeWithoutResult(status -> {
+            int products = jdbcTemplate.update(RECOVER_SQL, nodeId, nodeId);
+            jdbcTemplate.update(FORGET_USES_SQL, nodeId);
+            if (products > 0) {
+                logger.info("Returned stock leased before the last shutdown to {} products", products);
+            }
+        });
+    }
+
+    /**
+     * Takes up to {@code quantity} units from memory and returns how many it got, 0 unless the product is hot.
+     * Takes of products that are not hot are counted towards making them hot.
+     */
+    public int take(int productId, int quantity) {
+        Entry entry = hot.get(productId);
+        if (entry == null) {
+            demand.computeIfAbsent(productId, id -> new LongAdder()).increment();
+            return 0;
+        }
+        int taken = entry.take(quantity);
+        if (entry.remaining() < leaseSize / 2) {
+            refillAsync(entry);
+        }
+        return taken;
+    }
+
+    /** Records units taken by {@link #take} as used, in the transaction of the order that took them. */
+    public void recordUse(List<Map.Entry<Integer, Integer>> taken) {
+        if (taken.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_USE_SQL, taken, taken.size(), (ps, item) -> {
+            ps.setLong(1, idGenerator.nextId());
+            ps.setInt(2, nodeId);
+            ps.setInt(3, item.getKey());
+            ps.setInt(4, item.getValue());
+        });
+        AfterCommit.run(() -> unsettled.set(true));
+    }
+
+    /** Returns units taken by {@link #take} whose order did not go through. */
+    public void giveBack(int productId, int quantity) {
+        Entry entry = hot.get(productId);
+        if (entry == null || !entry.deposit(quantity)) {
+            returnToRow(productId, quantity);
+        }
+    }
+
+    public int remaining(int productId) {
+        Entry entry = hot.get(productId);
+        return entry == null ? 0 : entry.remaining();
+    }
+
+    /** Drops the leased units without returning them, for when the row's quantity has been overwritten. */
+    public void discard(int productId) {
+        Entry entry = hot.remove(productId);
+        if (entry != null) {
+            entry.close();
+            try {
+                ownTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.update(FORGET_PRODUCT_SQL, nodeId, productId, nodeId, productId));
+            } catch (Exception e) {
+                logger.error("Failed to forget the stock lease of product {}", productId, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-window-ms:1000}")
+    public void rebalance() {
+        Map<Integer, LongAdder> window = demand;
+        demand = new ConcurrentHashMap<>();
+        settle();
+
+        for (Entry entry : List.copyOf(hot.values())) {
+            if (entry.takes.sumThenReset() < hotThreshold / 4 && hot.remove(entry.productId, entry)) {
+                drain(entry);
+                logger.info("Product {} cooled down, leased stock returned", entry.productId);
+            }
+        }
+        window.forEach((productId, count) -> {
+            if (count.sum() >= hotThreshold) {
+                Entry entry = new Entry(productId, stripes);
+                if (hot.putIfAbsent(productId, entry) == null) {
+                    logger.info("Product {} is hot ({} reservations in the last window), serving stock from memory",
+                            productId, count.sum());
+                    refillAsync(entry);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void drainAll() {
+        for (Entry entry : List.copyOf(hot.values())) {
+            if (hot.remove(entry.productId, entry)) {
+                drain(entry);
+            }
+        }
+    }
+
+    // Folds recorded uses into the lease rows so stock_lease_use stays small
+    private void settle() {
+        if (!unsettled.getAndSet(false)) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(SETTLE_SQL, nodeId, nodeId));
+        } catch (Exception e) {
+            unsettled.set(true);
+            logger.warn("Failed to settle stock lease uses: {}", e.getMessage());
+        }
+    }
+
+    private void refillAsync(Entry entry) {
+        if (!entry.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Integer leased = ownTransaction.execute(status -> {
+                        Integer taken = jdbcTemplate.query(LEASE_SQL, rs -> rs.next() ? rs.getInt(1) : 0,
+                                leaseSize, entry.productId);
+                        if (taken != null && taken > 0) {
+                            jdbcTemplate.update(RECORD_LEASE_SQL, nodeId, entry.productId, taken);
+                        }
+                        return taken;
+                    });
+                    if (leased != null && leased > 0 && !entry.deposit(leased)) {
+                        returnToRow(entry.productId, leased);
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to lease stock for product {}", entry.productId, e);
+                } finally {
+                    entry.refilling.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            entry.refilling.set(false);
+            logger.warn("Stock refill for product {} not scheduled: {}", entry.productId, e.getMessage());
+        }
+    }
+
+    private void drain(Entry entry) {
+        int leased = entry.close();
+        if (leased > 0) {
+            returnToRow(entry.productId, leased);
+        }
+    }
+
+    private void returnToRow(int productId, int quantity) {
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.update(RETURN_SQL, quantity, productId);
+                jdbcTemplate.update(REDUCE_LEASE_SQL, quantity, nodeId, productId);
+            });
+        } catch (Exception e) {
+            logger.error("Failed to return {} units to product {}", quantity, productId, e);
+        }
+    }
+
+    private static final class Entry {
+        final int productId;
+        final int count;
+        final AtomicIntegerArray units;
+        final AtomicBoolean refilling = new AtomicBoolean();
+        final LongAdder takes = new LongAdder();
+        // Guards deposit against close; takes never lock
+        final ReentrantLock lock = new ReentrantLock();
+        boolean closed;
+
+        Entry(int productId, int count) {
+            this.productId = productId;
+            this.count = count;
+            this.units = new AtomicIntegerArray(count * PADDING);
+        }
+
+        /** Takes from as many stripes as it needs, starting at a random one, and returns the units taken. */
+        int take(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(count);
+            int taken = 0;
+            for (int i = 0; i < count && taken < quantity; i++) {
+                int slot = ((start + i) % count) * PADDING;
+                int current;
+                while ((current = units.get(slot)) > 0) {
+                    int part = Math.min(current, quantity - taken);
+                    if (units.compareAndSet(slot, current, current - part)) {
+                        taken += part;
+                        break;
+                    }
+                }
+            }
+            if (taken > 0) {
+                takes.increment();
+            }
+            return taken;
+        }
+
+        boolean deposit(int quantity) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                // Spread evenly so most takes are served by a single stripe
+                int share = quantity / count;
+                for (int i = 0; i < count; i++) {
+                    units.addAndGet(i * PADDING, share + (i < quantity % count ? 1 : 0));
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int remaining() {
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                total += units.get(i * PADDING);
+            }
+            return total;
+        }
+
+        /** Stops deposits and empties every stripe, returning what was left. */
+        int close() {
+            lock.lock();
+            try {
+                closed = true;
+                int total = 0;
+                for (int i = 0; i < count; i++) {
+                    total += units.getAndSet(i * PADDING, 0);
+                }
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
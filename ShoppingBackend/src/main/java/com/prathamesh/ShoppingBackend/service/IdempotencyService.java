@@ -0,0 +1,240 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.util.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response to retries.
+ * Completed responses live in the bounded "idempotency" cache and in the idempotency_record table until
+ * they expire. A duplicate arriving while the first request is still running on this instance waits for
+ * its result; one running on another instance is seen as a claimed row and answered with 409.
+ * Server errors are not recorded, so a retry after one runs the request again.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Takes the key unless a live claim or result already holds it
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_record (id, request_hash, created_at, expires_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET request_hash = EXCLUDED.request_hash, status_code = NULL, " +
+            "content_type = NULL, response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_record.expires_at < ? " +
+            "OR (idempotency_record.status_code IS NULL AND idempotency_record.created_at < ?)";
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_record SET status_code = ?, content_type = ?, response_body = ? WHERE id = ?";
+    private static final String SELECT_SQL =
+            "SELECT request_hash, status_code, content_type, response_body FROM idempotency_record " +
+            "WHERE id = ? AND expires_at >= ?";
+    private static final String DELETE_SQL = "DELETE FROM idempotency_record WHERE id = ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_record WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final ObjectMapper objectMapper;
+    private final Cache responses;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration claimTimeout;
+
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, CacheManager cacheManager,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                              @Value("${app.idempotency.claim-timeout:5m}") Duration claimTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.responses = cacheManager.getCache("idempotency");
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} was already used by {@code scope}, in which case the recorded
+     * response is returned without running it. Reusing a key with a different request body is rejected.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse cached = responses.get(id, StoredResponse.class);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return awaitDuplicate(running, requestHash);
+        }
+        boolean claimedKey = false;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer claimed = ownTransaction.execute(status -> jdbcTemplate.update(CLAIM_SQL,
+                    id, requestHash, now, now.plus(ttl), now, now.minus(claimTimeout)));
+            if (claimed == null || claimed == 0) {
+                StoredResponse stored = load(id);
+                mine.complete(stored);
+                if (stored == null) {
+                    return inProgress();
+                }
+                responses.put(id, stored);
+                return replay(stored, requestHash);
+            }
+
+            claimedKey = true;
+
+            ResponseEntity<?> response = action.get();
+            StoredResponse stored = toStored(requestHash, response);
+            if (response.getStatusCode().is5xxServerError()) {
+                release(id);
+            } else {
+                ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(COMPLETE_SQL,
+                        stored.statusCode(), stored.contentType(), stored.body(), id));
+                responses.put(id, stored);
+            }
+            mine.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            if (claimedKey) {
+                release(id);
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-ms:600000}")
+    public void purgeExpired() {
+        Integer purged = ownTransaction.execute(status -> jdbcTemplate.update(PURGE_SQL, LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private ResponseEntity<?> awaitDuplicate(CompletableFuture<StoredResponse> running, String requestHash) {
+        try {
+            StoredResponse stored = running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return stored == null ? inProgress() : replay(stored, requestHash);
+        } catch (TimeoutException e) {
+            return inProgress();
+        } catch (ExecutionException e) {
+            // The original failed without a response; nothing was recorded, so the client may retry
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("The original request with this " + HEADER + " failed; please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inProgress();
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(HEADER + " was already used for a different request");
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode()).header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            builder.contentType(MediaType.parseMediaType(stored.contentType()));
+        }
+        return builder.body(stored.body());
+    }
+
+    private static ResponseEntity<?> inProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Retry-After", "1")
+                .body("A request with this " + HEADER + " is still being processed");
+    }
+
+    private StoredResponse load(String id) {
+        List<StoredResponse> rows = ownTransaction.execute(status -> jdbcTemplate.query(SELECT_SQL,
+                (rs, n) -> {
+                    int code = rs.getInt("status_code");
+                    return rs.wasNull() ? null
+                            : new StoredResponse(rs.getString("request_hash"), code,
+                                    rs.getString("content_type"), rs.getString("response_body"));
+                },
+                id, LocalDateTime.now()));
+        return rows == null || rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void release(String id) {
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(DELETE_SQL, id));
+        } catch (Exception e) {
+            logger.error("Failed to release idempotency claim {}", id, e);
+        }
+    }
+
+    private StoredResponse toStored(String requestHash, ResponseEntity<?> response) {
+        Object body = response.getBody();
+        String contentType = null;
+        String text = null;
+        if (body instanceof CharSequence chars) {
+            contentType = MediaType.TEXT_PLAIN_VALUE;
+            text = chars.toString();
+        } else if (body != null) {
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+            try {
+                text = objectMapper.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Response cannot be recorded", e);
+            }
+        }
+        return new StoredResponse(requestHash, response.getStatusCode().value(), contentType, text);
+    }
+
+    private String hash(Object request) {
+        try {
+            return ContentHash.sha256Hex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, int statusCode, String contentType, String body)
+            implements Serializable {
+    }
+}
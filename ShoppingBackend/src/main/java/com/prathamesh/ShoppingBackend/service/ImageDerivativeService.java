@@ -0,0 +1,126 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.model.ProductImage;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant.Variant;
+import com.prathamesh.ShoppingBackend.repository.ProductImageRepository;
+import com.prathamesh.ShoppingBackend.repository.ProductImageVariantRepo;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import com.prathamesh.ShoppingBackend.util.ImageResizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Builds resized copies of uploaded product images off the request thread.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private final ProductImageRepository productImageRepository;
+    private final ProductImageVariantRepo variantRepo;
+    private final Executor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageDerivativeService(ProductImageRepository productImageRepository,
+                                  ProductImageVariantRepo variantRepo,
+                                  @Qualifier("taskExecutor") Executor taskExecutor,
+                                  PlatformTransactionManager transactionManager) {
+        this.productImageRepository = productImageRepository;
+        this.variantRepo = variantRepo;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queues derivative generation for the given images once the current transaction commits,
+     * so the worker never reads an image row that is not yet visible (or gets rolled back).
+     */
+    public void scheduleDerivatives(List<Integer> imageIds) {
+        if (imageIds == null || imageIds.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(imageIds);
+        AfterCommit.run(() -> submit(ids));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingDerivatives() {
+        List<Integer> missing = variantRepo.findImageIdsWithoutVariants();
+        if (!missing.isEmpty()) {
+            logger.info("Generating derivatives for {} existing product images", missing.size());
+            submit(missing);
+        }
+    }
+
+    // One task per batch keeps a large backfill from overflowing the executor queue
+    private void submit(List<Integer> imageIds) {
+        try {
+            taskExecutor.execute(() -> {
+                for (Integer imageId : imageIds) {
+                    try {
+                        generateDerivatives(imageId);
+                    } catch (Exception e) {
+                        logger.error("Failed to generate derivatives for image {}", imageId, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Called after commit, where throwing would fail a request whose data is already saved; the images
+            // keep serving their originals and the next startup backfill picks them up
+            logger.warn("Executor is saturated; deferring derivatives for {} images to the next backfill", imageIds.size());
+        }
+    }
+
+    public void generateDerivatives(int imageId) throws Exception {
+        ProductImage image = transactionTemplate.execute(status ->
+                productImageRepository.findById(imageId).orElse(null));
+        if (image == null) {
+            logger.debug("Image {} was removed before its derivatives were built", imageId);
+            return;
+        }
+
+        BufferedImage original;
+        try {
+            original = ImageResizer.decode(image.getImageData());
+        } catch (IOException e) {
+            original = null;
+        }
+        if (original == null) {
+            logger.warn("Image {} ({}) cannot be decoded; serving the original for all variants",
+                    imageId, image.getImageType());
+            transactionTemplate.executeWithoutResult(status -> productImageRepository.markDerivativesFailed(imageId));
+            return;
+        }
+
+        List<ProductImageVariant> variants = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            BufferedImage scaled = ImageResizer.fit(original, variant.getMaxDimension());
+            variants.add(new ProductImageVariant(image, variant, scaled.getWidth(), scaled.getHeight(),
+                    ImageResizer.contentType(scaled), ImageResizer.encode(scaled)));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!productImageRepository.existsById(imageId)) {
+                return;
+            }
+            variantRepo.deleteByImageId(imageId);
+            variantRepo.saveAll(variants);
+        });
+        logger.debug("Generated {} derivatives for image {}", variants.size(), imageId);
+    }
+}
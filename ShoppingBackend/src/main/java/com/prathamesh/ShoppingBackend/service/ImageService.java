@@ -0,0 +1,169 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Dto.ImageMetadataDTO;
+import com.prathamesh.ShoppingBackend.Exception.ResourceNotFoundException;
+import com.prathamesh.ShoppingBackend.repository.DealsRepo;
+import com.prathamesh.ShoppingBackend.model.ProductImageVariant.Variant;
+import com.prathamesh.ShoppingBackend.repository.ProductImageRepository;
+import com.prathamesh.ShoppingBackend.repository.ProductImageVariantRepo;
+import com.prathamesh.ShoppingBackend.util.ContentHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Serves image bytes straight from the LOB columns without materializing them as byte arrays.
+ */
+@Service
+public class ImageService {
+
+    public enum Source {
+        PRODUCT("product_image", "content_length", "content_hash"),
+        DEAL("deals", "image_content_length", "image_content_hash"),
+        VARIANT("product_image_variant", "content_length", "content_hash");
+
+        private final String table;
+        private final String lengthColumn;
+        private final String hashColumn;
+
+        Source(String table, String lengthColumn, String hashColumn) {
+            this.table = table;
+            this.lengthColumn = lengthColumn;
+            this.hashColumn = hashColumn;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlobReader {
+        void read(Blob blob) throws IOException, SQLException;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private final ProductImageRepository productImageRepository;
+    private final DealsRepo dealsRepo;
+    private final ProductImageVariantRepo variantRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+
+    public ImageService(ProductImageRepository productImageRepository, DealsRepo dealsRepo,
+                        ProductImageVariantRepo variantRepo, JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager) {
+        this.productImageRepository = productImageRepository;
+        this.dealsRepo = dealsRepo;
+        this.variantRepo = variantRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    public ImageMetadataDTO getMetadata(Source source, int id) {
+        Optional<ImageMetadataDTO> metadata = switch (source) {
+            case PRODUCT -> productImageRepository.findMetadataById(id);
+            case DEAL -> dealsRepo.findImageMetadataById(id);
+            case VARIANT -> variantRepo.findMetadataById(id);
+        };
+        ImageMetadataDTO meta = metadata
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found with id: " + id));
+        if (meta.getContentHash() == null || meta.getContentLength() == null) {
+            backfillDigest(source, meta);
+        }
+        return meta;
+    }
+
+    /** Metadata of a generated derivative, empty while the derivative has not been built yet. */
+    public Optional<ImageMetadataDTO> findVariantMetadata(int imageId, Variant variant) {
+        return variantRepo.findMetadata(imageId, variant);
+    }
+
+    /**
+     * Copies {@code length} bytes from {@code offset} in chunks, each read in a short transaction of its own,
+     * so a slow client never keeps a pooled connection between chunks. The large object is resolved once, so
+     * an image replaced mid-download cannot splice two images together.
+     */
+    public void streamImage(Source source, int id, long offset, long length, OutputStream out) {
+        if (length <= 0) {
+            return;
+        }
+        Long oid = readOnlyTx.execute(status -> jdbcTemplate.query(
+                "SELECT image_data FROM " + source.table + " WHERE id = ?",
+                rs -> rs.next() ? rs.getObject(1, Long.class) : null, id));
+        if (oid == null) {
+            throw new ResourceNotFoundException("Image not found with id: " + id);
+        }
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+            long chunkOffset = position;
+            int chunkLength = (int) Math.min(CHUNK_SIZE, end - position);
+            byte[] chunk = readOnlyTx.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT lo_get(?, ?, ?)", byte[].class, oid, chunkOffset, chunkLength));
+            if (chunk == null || chunk.length == 0) {
+                throw new IllegalStateException("Image " + id + " ended at byte " + position + " of " + end);
+            }
+            try {
+                out.write(chunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position += chunk.length;
+        }
+    }
+
+    // Rows stored before content hashes existed are digested once from the LOB stream
+    private void backfillDigest(Source source, ImageMetadataDTO meta) {
+        MessageDigest digest = ContentHash.newDigest();
+        long[] length = {0};
+        readBlob(source, meta.getId(), blob -> {
+            try (InputStream in = new DigestInputStream(blob.getBinaryStream(), digest)) {
+                length[0] = in.transferTo(OutputStream.nullOutputStream());
+            }
+        });
+        meta.setContentHash(HexFormat.of().formatHex(digest.digest()));
+        meta.setContentLength(length[0]);
+
+        writeTx.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE " + source.table + " SET " + source.lengthColumn + " = ?, " + source.hashColumn + " = ? WHERE id = ?",
+                meta.getContentLength(), meta.getContentHash(), meta.getId()));
+        logger.info("Backfilled content hash for {} image {}", source, meta.getId());
+    }
+
+    private void readBlob(Source source, int id, BlobReader reader) {
+        Boolean found = readOnlyTx.execute(status -> jdbcTemplate.query(
+                "SELECT image_data FROM " + source.table + " WHERE id = ?",
+                rs -> {
+                    if (!rs.next()) return false;
+                    Blob blob = rs.getBlob(1);
+                    if (blob == null) return false;
+                    try {
+                        reader.read(blob);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        blob.free();
+                    }
+                    return true;
+                }, id));
+        if (!Boolean.TRUE.equals(found)) {
+            throw new ResourceNotFoundException("Image not found with id: " + id);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Exception.InsufficientStockException;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves and releases product stock inside the caller's transaction.
+ * Rows are decremented with a conditional UPDATE that only matches when enough stock is left, so there is
+ * no read-then-write window. Multi-item orders touch rows in ascending product id order, which keeps two
+ * orders from ever waiting on each other's locks. Hot products are served by {@link HotStockFront} first.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final String RESERVE_SQL = "UPDATE product SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+    private static final String RELEASE_SQL = "UPDATE product SET quantity = quantity + ? WHERE id = ?";
+    private static final String LOCK_SQL = "SELECT id FROM product WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HotStockFront hotStock;
+    private final ProductService productService;
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+    public InventoryService(JdbcTemplate jdbcTemplate, HotStockFront hotStock, ProductService productService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hotStock = hotStock;
+        this.productService = productService;
+    }
+
+    /**
+     * Reserves every quantity or throws {@link InsufficientStockException}; the caller's transaction must
+     * roll back on failure, wholly or to a savepoint. Anything already taken from memory is returned once
+     * the transaction ends.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> sorted = validate(quantities);
+
+        // Memory serves what it can; the row covers the rest
+        List<Map.Entry<Integer, Integer>> fromMemory = new ArrayList<>();
+        List<Map.Entry<Integer, Integer>> rowUpdates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> item : sorted.entrySet()) {
+            int taken = hotStock.take(item.getKey(), item.getValue());
+            if (taken > 0) {
+                fromMemory.add(Map.entry(item.getKey(), taken));
+            }
+            if (taken < item.getValue()) {
+                rowUpdates.add(Map.entry(item.getKey(), item.getValue() - taken));
+            }
+        }
+
+        if (!rowUpdates.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, rowUpdates, rowUpdates.size(), (ps, item) -> {
+                ps.setInt(1, item.getValue());
+                ps.setInt(2, item.getKey());
+                ps.setInt(3, item.getValue());
+            });
+            for (int i = 0; i < rowUpdates.size(); i++) {
+                if (counts[0][i] == 0) {
+                    // Not until the transaction ends, whether or not the caller rolls back only to a savepoint: if the
+                    // product has cooled down meanwhile the units go back to its row, which this transaction may hold
+                    fromMemory.forEach(taken -> AfterCommit.afterCompletion(
+                            () -> hotStock.giveBack(taken.getKey(), taken.getValue())));
+                    throw new InsufficientStockException("Insufficient stock for product " + rowUpdates.get(i).getKey());
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> taken : fromMemory) {
+            AfterCommit.onRollback(() -> hotStock.giveBack(taken.getKey(), taken.getValue()));
+        }
+        hotStock.recordUse(fromMemory);
+        AfterCommit.run(() -> changed.addAll(sorted.keySet()));
+    }
+
+    /**
+     * Reserves stock for several orders in one transaction and returns, per order, null or why it could not be
+     * reserved. Every row involved is locked in product id order first, so the batch cannot deadlock with other
+     * reservations. All orders are tried together; only if that falls short are they tried one by one, each
+     * under a savepoint so that a rejected order leaves nothing reserved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<InsufficientStockException> reserveEach(List<Map<Integer, Integer>> orders) {
+        Map<Integer, Integer> total = new HashMap<>();
+        for (Map<Integer, Integer> quantities : orders) {
+            quantities.forEach((productId, quantity) -> total.merge(productId, quantity, Integer::sum));
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(LOCK_SQL);
+            ps.setArray(1, con.createArrayOf("integer", total.keySet().toArray()));
+            return ps;
+        }, rs -> { });
+
+        List<InsufficientStockException> failures = new ArrayList<>(Collections.nCopies(orders.size(), null));
+        if (orders.size() == 1 || tryReserve(total) != null) {
+            for (int i = 0; i < orders.size(); i++) {
+                failures.set(i, tryReserve(orders.get(i)));
+            }
+        }
+        return failures;
+    }
+
+    // Savepoints go straight to the transaction's connection; the JPA transaction manager does not offer them
+    private InsufficientStockException tryReserve(Map<Integer, Integer> quantities) {
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            reserve(quantities);
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                con.releaseSavepoint(savepoint);
+                return null;
+            });
+            return null;
+        } catch (InsufficientStockException e) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                con.rollback(savepoint);
+                return null;
+            });
+            return e;
+        }
+    }
+
+    /** Puts reserved quantities back on their rows, e.g. when an order is cancelled. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> sorted = validate(quantities);
+        List<Map.Entry<Integer, Integer>> rowUpdates = new ArrayList<>(sorted.entrySet());
+        jdbcTemplate.batchUpdate(RELEASE_SQL, rowUpdates, rowUpdates.size(), (ps, item) -> {
+            ps.setInt(1, item.getValue());
+            ps.setInt(2, item.getKey());
+        });
+        AfterCommit.run(() -> changed.addAll(sorted.keySet()));
+    }
+
+    /** Stock that can still be reserved: what is on the row plus anything leased into memory. */
+    public int availableStock(Product product) {
+        return product.getQuantity() + hotStock.remaining(product.getId());
+    }
+
+    /** Pushes stock changes to the product cache and listing indexes in one batch rather than per order. */
+    @Scheduled(fixedDelayString = "${app.inventory.refresh-ms:1000}")
+    public void refreshChangedProducts() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        try {
+            productService.refreshProducts(ids);
+        } catch (Exception e) {
+            logger.error("Failed to refresh {} products after stock changes", ids.size(), e);
+        }
+    }
+
+    private static SortedMap<Integer, Integer> validate(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> sorted = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId);
+            }
+            sorted.put(productId, quantity);
+        });
+        return sorted;
+    }
+}
@@ -0,0 +1,194 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.model.Orders.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Keeps the orders table down to recent and open orders.
+ * Closed orders older than the horizon are moved into orders_archive in batches, each in a transaction
+ * of its own, with their items and status history folded into the archived row. When orders is partitioned by month
+ * (db-partitioning.sql), partitions are created ahead of time and those left empty by archiving are dropped.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'orders_p'yyyyMM");
+
+    // Deletes a batch of closed orders, their items and their status history and inserts the archived rows in
+    // one statement; the created_at bound is repeated on the delete so only old partitions are touched
+    private static final String ARCHIVE_SQL =
+            "WITH picked AS (" +
+            "  SELECT id FROM orders WHERE created_at < ? AND status = ANY(?) ORDER BY created_at LIMIT ?" +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), items AS (" +
+            "  DELETE FROM order_item WHERE order_id IN (SELECT id FROM picked)" +
+            "  RETURNING id, order_id, product_id, quantity, price" +
+            "), history AS (" +
+            "  DELETE FROM order_status_history WHERE order_id IN (SELECT id FROM picked)" +
+            "  RETURNING id, order_id, from_status, to_status, changed_at, changed_by" +
+            "), moved AS (" +
+            "  DELETE FROM orders WHERE id IN (SELECT id FROM picked) AND created_at < ?" +
+            "  RETURNING id, user_id, address_id, total_amount, subtotal_amount, shipping_cost, tax_amount," +
+            "  status, created_at, updated_at" +
+            ") INSERT INTO orders_archive (id, user_id, address_id, total_amount, subtotal_amount, shipping_cost," +
+            "  tax_amount, status, created_at, updated_at, archived_at, items, status_history)" +
+            " SELECT m.id, m.user_id, m.address_id, m.total_amount, m.subtotal_amount, m.shipping_cost, m.tax_amount," +
+            "  m.status, m.created_at, m.updated_at, ?, COALESCE((SELECT jsonb_agg(jsonb_build_object(" +
+            "    'id', i.id, 'productId', i.product_id, 'quantity', i.quantity, 'price', i.price)) FROM items i" +
+            "    WHERE i.order_id = m.id), '[]'::jsonb)," +
+            "  COALESCE((SELECT jsonb_agg(jsonb_build_object('fromStatus', h.from_status, 'toStatus', h.to_status," +
+            "    'changedAt', h.changed_at, 'changedBy', h.changed_by) ORDER BY h.changed_at, h.id) FROM history h" +
+            "    WHERE h.order_id = m.id), '[]'::jsonb)" +
+            " FROM moved m";
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('orders'))";
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass('orders')";
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final int afterMonths;
+    private final int batchSize;
+    private final int monthsAhead;
+
+    public OrderArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${app.orders.archive.after-months:12}") int afterMonths,
+                               @Value("${app.orders.archive.batch-size:1000}") int batchSize,
+                               @Value("${app.orders.partitions.months-ahead:3}") int monthsAhead) {
+        if (afterMonths < 1) {
+            throw new IllegalArgumentException("app.orders.archive.after-months must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            logger.error("Failed to create upcoming order partitions", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void runMaintenance() {
+        try {
+            createUpcomingPartitions();
+            archiveClosedOrders();
+            dropEmptyPartitions();
+        } catch (Exception e) {
+            logger.error("Order archive maintenance failed", e);
+        }
+    }
+
+    /** Moves every closed order created before the horizon into orders_archive and returns how many moved. */
+    public long archiveClosedOrders() {
+        Timestamp horizon = Timestamp.valueOf(horizon());
+        String[] closed = Arrays.stream(OrderStatus.values())
+                .filter(status -> status.next().isEmpty())
+                .map(Enum::name)
+                .toArray(String[]::new);
+        long start = System.currentTimeMillis();
+        long total = 0;
+        int moved;
+        do {
+            Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+            Integer count = ownTransaction.execute(status -> jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement(ARCHIVE_SQL);
+                ps.setTimestamp(1, horizon);
+                ps.setArray(2, con.createArrayOf("varchar", closed));
+                ps.setInt(3, batchSize);
+                ps.setTimestamp(4, horizon);
+                ps.setTimestamp(5, archivedAt);
+                return ps;
+            }));
+            moved = count == null ? 0 : count;
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            logger.info("Archived {} orders created before {} in {} ms", total, horizon, System.currentTimeMillis() - start);
+        }
+        return total;
+    }
+
+    /** Creates monthly partitions from the current month through {@code monthsAhead} months ahead. */
+    public void createUpcomingPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String sql = CREATE_PARTITION_SQL.formatted(
+                    PARTITION_NAME.format(month.atDay(1)), month.atDay(1), month.plusMonths(1).atDay(1));
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.execute(sql));
+        }
+    }
+
+    /** Drops monthly partitions that lie wholly before the horizon and have nothing left in them. */
+    public void dropEmptyPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth horizonMonth = YearMonth.from(horizon());
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            YearMonth month;
+            try {
+                month = YearMonth.parse(name, PARTITION_NAME);
+            } catch (DateTimeParseException e) {
+                continue;   // the default partition, or one not created here
+            }
+            if (!month.isBefore(horizonMonth)) {
+                continue;
+            }
+            Boolean dropped = ownTransaction.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + name + " IN ACCESS EXCLUSIVE MODE");
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + name + ")", Boolean.class))) {
+                    return false;
+                }
+                jdbcTemplate.execute("DROP TABLE " + name);
+                return true;
+            });
+            if (Boolean.TRUE.equals(dropped)) {
+                logger.info("Dropped empty order partition {}", name);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    private LocalDateTime horizon() {
+        return YearMonth.now().minusMonths(afterMonths).atDay(1).atStartOfDay();
+    }
+}
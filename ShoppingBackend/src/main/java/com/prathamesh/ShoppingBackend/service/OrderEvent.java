@@ -0,0 +1,21 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.model.Orders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Order lifecycle event as stored in the outbox and handed to {@link OrderEventSubscriber}s. */
+public record OrderEvent(Type type, Long orderId, Long userId, BigDecimal totalAmount,
+                         String fromStatus, String toStatus, LocalDateTime occurredAt) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+
+    public static OrderEvent created(Orders order) {
+        return new OrderEvent(Type.CREATED, order.getId(), order.getUserId(), order.getTotalAmount(),
+                null, order.getStatus().name(), LocalDateTime.now());
+    }
+}
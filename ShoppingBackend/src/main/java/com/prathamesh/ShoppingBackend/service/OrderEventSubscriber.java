@@ -0,0 +1,11 @@
+package com.prathamesh.ShoppingBackend.service;
+
+/**
+ * Receives order events from the outbox after the originating transaction has committed.
+ * Delivery is at least once: an event is redelivered to every subscriber if any of them throws,
+ * so handlers must tolerate seeing the same {@code eventId} twice.
+ */
+public interface OrderEventSubscriber {
+
+    void onOrderEvent(long eventId, OrderEvent event);
+}
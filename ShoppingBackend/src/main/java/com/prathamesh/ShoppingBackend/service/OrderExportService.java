@@ -0,0 +1,180 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.util.CursorCodec;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import com.prathamesh.ShoppingBackend.util.RecordWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Streams the order ledger for a date range as CSV or NDJSON: one row per order line, with the order's
+ * amounts and shipping address repeated on each, live and archived orders alike. Rows are read in
+ * (createdAt, orderId, line) order, a page at a time, each page in a short read of its own, and written out
+ * between reads, so neither memory nor a pooled connection is held for the length of the download. The line
+ * is the order item's id on both sides of the archive, so every row carries a cursor that still points at the
+ * same place after its order has been archived; passing the last one received as {@code after} resumes an
+ * interrupted export with the row that follows it.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final int PAGE_SIZE = 1000;
+    private static final String[] COLUMNS = {
+            "orderId", "createdAt", "status", "userId", "subtotalAmount", "shippingCost", "taxAmount", "totalAmount",
+            "line", "productId", "quantity", "price", "street", "city", "state", "zipCode", "country", "cursor"
+    };
+
+    // Each branch walks its (created_at, id) index from the position and stops after one more order than a
+    // page can need (the first may have no lines left), so the outer sort only merges two short ordered lists
+    private static final String LIVE_PAGE_SQL =
+            "SELECT o.id AS order_id, o.created_at, o.status, o.user_id, o.subtotal_amount, o.shipping_cost," +
+            "  o.tax_amount, o.total_amount, COALESCE(i.id, 0) AS line, i.product_id, i.quantity, i.price," +
+            "  a.street, a.city, a.state, a.zip_code, a.country" +
+            " FROM (SELECT * FROM orders WHERE created_at >= ? AND created_at < ? AND (created_at, id) >= (?, ?)" +
+            "   ORDER BY created_at, id LIMIT ?) o" +
+            " LEFT JOIN order_item i ON i.order_id = o.id LEFT JOIN address a ON a.id = o.address_id" +
+            " WHERE (o.created_at, o.id, COALESCE(i.id, 0)) > (?, ?, ?)" +
+            " ORDER BY o.created_at, o.id, line LIMIT ?";
+    // Archived items carry the id they had in order_item; rows archived before that fall back to their position
+    private static final String ARCHIVED_PAGE_SQL =
+            "SELECT o.id, o.created_at, o.status, o.user_id, o.subtotal_amount, o.shipping_cost, o.tax_amount," +
+            "  o.total_amount, COALESCE(CAST(e.item ->> 'id' AS bigint), e.ord, 0) AS line," +
+            "  CAST(e.item ->> 'productId' AS bigint), CAST(e.item ->> 'quantity' AS integer)," +
+            "  CAST(e.item ->> 'price' AS numeric), a.street, a.city, a.state, a.zip_code, a.country" +
+            " FROM (SELECT * FROM orders_archive WHERE created_at >= ? AND created_at < ? AND (created_at, id) >= (?, ?)" +
+            "   ORDER BY created_at, id LIMIT ?) o" +
+            " LEFT JOIN LATERAL jsonb_array_elements(o.items) WITH ORDINALITY AS e(item, ord) ON true" +
+            " LEFT JOIN address a ON a.id = o.address_id" +
+            " WHERE (o.created_at, o.id, COALESCE(CAST(e.item ->> 'id' AS bigint), e.ord, 0)) > (?, ?, ?)" +
+            " ORDER BY o.created_at, o.id, line LIMIT ?";
+    private static final String PAGE_SQL =
+            "(" + LIVE_PAGE_SQL + ") UNION ALL (" + ARCHIVED_PAGE_SQL + ") ORDER BY created_at, order_id, line LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Where an export resumes: strictly after this row. */
+    public record Position(LocalDateTime createdAt, long orderId, long line) {
+        public static Position decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 3);
+            try {
+                return new Position(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            } catch (DateTimeParseException | NumberFormatException | NullPointerException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+        }
+
+        String encode() {
+            return CursorCodec.encode(createdAt.toString(), Long.toString(orderId), Long.toString(line));
+        }
+    }
+
+    private record LedgerRow(long orderId, LocalDateTime createdAt, String status, Long userId,
+                             BigDecimal subtotalAmount, BigDecimal shippingCost, BigDecimal taxAmount,
+                             BigDecimal totalAmount, long line, Long productId, Long quantity, BigDecimal price,
+                             String street, String city, String state, String zipCode, String country) {
+        Position position() {
+            return new Position(createdAt, orderId, line);
+        }
+    }
+
+    /** Checks the range up front, so a bad request fails before the response has started. */
+    public void validate(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+    }
+
+    /** Writes the lines of orders created from {@code from} through {@code to}, both inclusive. */
+    public void export(ExportFormat format, LocalDate from, LocalDate to, Position after, OutputStream out) throws IOException {
+        validate(from, to);
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        // Ids and lines are never negative, so this sits before every row of the range
+        Position position = after != null ? after : new Position(from.atStartOfDay(), -1, -1);
+
+        long startMillis = System.currentTimeMillis();
+        long rows = 0;
+        try (RecordWriter writer = RecordWriter.open(format, COLUMNS, objectMapper, out)) {
+            List<LedgerRow> page;
+            do {
+                page = readPage(start, end, position);
+                for (LedgerRow row : page) {
+                    writer.write(row.orderId(), row.createdAt().toString(), row.status(), row.userId(),
+                            row.subtotalAmount(), row.shippingCost(), row.taxAmount(), row.totalAmount(), row.line(),
+                            row.productId(), row.quantity(), row.price(), row.street(), row.city(), row.state(),
+                            row.zipCode(), row.country(), row.position().encode());
+                }
+                writer.flush();
+                if (!page.isEmpty()) {
+                    position = page.get(page.size() - 1).position();
+                    rows += page.size();
+                }
+            } while (page.size() == PAGE_SIZE);
+        }
+        logger.info("Exported {} order lines from {} to {} as {} in {} ms",
+                rows, from, to, format, System.currentTimeMillis() - startMillis);
+    }
+
+    private List<LedgerRow> readPage(Timestamp start, Timestamp end, Position after) {
+        Timestamp afterCreatedAt = Timestamp.valueOf(after.createdAt());
+        return readOnlyTx.execute(status -> jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(PAGE_SQL);
+            int index = 1;
+            for (int branch = 0; branch < 2; branch++) {
+                ps.setTimestamp(index++, start);
+                ps.setTimestamp(index++, end);
+                ps.setTimestamp(index++, afterCreatedAt);
+                ps.setLong(index++, after.orderId());
+                ps.setInt(index++, PAGE_SIZE + 1);
+                ps.setTimestamp(index++, afterCreatedAt);
+                ps.setLong(index++, after.orderId());
+                ps.setLong(index++, after.line());
+                ps.setInt(index++, PAGE_SIZE);
+            }
+            ps.setInt(index, PAGE_SIZE);
+            return ps;
+        }, (rs, rowNum) -> new LedgerRow(
+                rs.getLong("order_id"), rs.getTimestamp("created_at").toLocalDateTime(), rs.getString("status"),
+                nullableLong(rs, "user_id"), rs.getBigDecimal("subtotal_amount"), rs.getBigDecimal("shipping_cost"),
+                rs.getBigDecimal("tax_amount"), rs.getBigDecimal("total_amount"), rs.getLong("line"),
+                nullableLong(rs, "product_id"), nullableLong(rs, "quantity"), rs.getBigDecimal("price"),
+                rs.getString("street"), rs.getString("city"), rs.getString("state"), rs.getString("zip_code"),
+                rs.getString("country"))));
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
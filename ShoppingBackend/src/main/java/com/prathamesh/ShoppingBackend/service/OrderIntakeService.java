@@ -0,0 +1,223 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Dto.OrderDTO;
+import com.prathamesh.ShoppingBackend.Dto.OrderRequest;
+import com.prathamesh.ShoppingBackend.Exception.OrderProcessingException;
+import com.prathamesh.ShoppingBackend.model.Orders;
+import com.prathamesh.ShoppingBackend.service.OrderService.Placement;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for order placement. When enabled, requests are validated and priced on the caller's thread,
+ * then queued; flusher threads take whatever has queued up, waiting at most {@code max-wait} for a batch to
+ * fill, and save the batch through {@link OrderService#createOrders} in one transaction, so a burst of
+ * checkouts shares one commit instead of paying for one each. Each caller is released when its batch
+ * commits. If a batch fails as a whole, its orders are retried one at a time so one bad order cannot sink
+ * the others. When disabled, or when the queue is full, orders are placed directly.
+ */
+@Service
+public class OrderIntakeService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final OrderService orderService;
+    private final HotCartStore hotCarts;
+    private final boolean enabled;
+    private final int flushers;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Duration callerTimeout;
+
+    private final BlockingQueue<Pending> queue;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final DistributionSummary batchSize;
+    private final Timer flushTime;
+
+    public OrderIntakeService(OrderService orderService, HotCartStore hotCarts, MeterRegistry meterRegistry,
+                              @Value("${app.orders.group-commit.enabled:false}") boolean enabled,
+                              @Value("${app.orders.group-commit.flushers:2}") int flushers,
+                              @Value("${app.orders.group-commit.max-batch:64}") int maxBatch,
+                              @Value("${app.orders.group-commit.max-wait:2ms}") Duration maxWait,
+                              @Value("${app.orders.group-commit.queue-capacity:4096}") int queueCapacity,
+                              @Value("${app.orders.group-commit.caller-timeout:10s}") Duration callerTimeout) {
+        this.orderService = orderService;
+        this.hotCarts = hotCarts;
+        this.enabled = enabled;
+        this.flushers = flushers;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.callerTimeout = callerTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSize = DistributionSummary.builder("orders.intake.batch.size")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("orders.intake.flush")
+                .description("Time to save and commit one batch of orders")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /** Places an order, batched with concurrent ones when group commit is enabled. */
+    public OrderDTO placeOrder(OrderRequest orderRequest) {
+        // Checkout: the cart being ordered is written out rather than left to the next write-behind round
+        if (orderRequest.getUserId() != null) {
+            hotCarts.flush(orderRequest.getUserId());
+        }
+        if (!running) {
+            return orderService.createOrder(orderRequest);
+        }
+        Pending pending = new Pending(orderService.prepareOrder(orderRequest));
+        if (!queue.offer(pending)) {
+            return orderService.createOrder(orderRequest);
+        }
+        // stop() may have drained the queue between the running check and the offer; if the order is still
+        // there nobody will take it, so it is placed here the same way stop() places leftovers
+        if (!running && queue.remove(pending)) {
+            flush(List.of(pending));
+        }
+        try {
+            return pending.result.get(callerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new OrderProcessingException("Failed to create order: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            // The order may still be saved; an Idempotency-Key lets the client retry safely
+            throw new OrderProcessingException("Order is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderProcessingException("Interrupted while placing order");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < flushers; i++) {
+            threads.add(Thread.ofVirtual().name("order-intake-" + i).start(this::work));
+        }
+        logger.info("Order group commit enabled: {} flushers, batches of up to {}", flushers, maxBatch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        threads.clear();
+        // Anything still queued is placed directly rather than dropped
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> flush(List.of(pending)));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void work() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                if (running) {
+                    logger.warn("Order intake flusher interrupted");
+                }
+            } finally {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        batchSize.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            List<Placement> placements = orderService.createOrders(batch.stream().map(Pending::order).toList());
+            flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for (int i = 0; i < batch.size(); i++) {
+                Placement placement = placements.get(i);
+                if (placement.rejection() == null) {
+                    batch.get(i).result.complete(placement.order());
+                } else {
+                    batch.get(i).result.completeExceptionally(placement.rejection());
+                }
+            }
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                logger.error("Failed to create order: {}", e.getMessage());
+                batch.get(0).result.completeExceptionally(
+                        new OrderProcessingException("Failed to create order: " + e.getMessage()));
+                return;
+            }
+            logger.warn("Order batch of {} failed, retrying one at a time: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                pending.clearGeneratedIds();
+                flush(List.of(pending));
+            }
+        }
+    }
+
+    private record Pending(Orders order, CompletableFuture<OrderDTO> result) {
+        Pending(Orders order) {
+            this(order, new CompletableFuture<>());
+        }
+
+        // Ids handed out in a rolled-back batch would make the retry look like an update of missing rows
+        void clearGeneratedIds() {
+            order.setId(null);
+            order.getItems().forEach(item -> item.setId(null));
+        }
+    }
+}
@@ -4,15 +4,20 @@ import com.prathamesh.ShoppingBackend.Dto.*;
 import com.prathamesh.ShoppingBackend.Exception.*;
 import com.prathamesh.ShoppingBackend.model.*;
 import com.prathamesh.ShoppingBackend.repository.*;
+import com.prathamesh.ShoppingBackend.util.CursorCodec;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,21 +33,38 @@ public class OrderService {
     private static final BigDecimal FREE_SHIPPING_THRESHOLD = new BigDecimal("1000");
     private static final BigDecimal SHIPPING_COST = new BigDecimal("100");
     private static final BigDecimal MAX_TOTAL_VARIANCE = new BigDecimal("0.01");
+    private static final BigDecimal UNIT_ROUNDING = new BigDecimal("0.005");
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final OrderRepo orderRepo;
     private final OrderItemRepo orderItemRepo;
     private final UserRepo userRepo;
     private final AddressRepo addressRepo;
     private final ProductRepo productRepo;
+    private final InventoryService inventoryService;
+    private final OrderStatusService orderStatusService;
+    private final OutboxService outboxService;
+    private final OrderStatsService orderStatsService;
+    private final long exactCountLimit;
 
     public OrderService(OrderRepo orderRepo, OrderItemRepo orderItemRepo, 
                       UserRepo userRepo, AddressRepo addressRepo,
-                      ProductRepo productRepo) {
+                      ProductRepo productRepo, InventoryService inventoryService,
+                      OrderStatusService orderStatusService, OutboxService outboxService,
+                      OrderStatsService orderStatsService,
+                      @Value("${app.orders.search.exact-count-limit:10000}") long exactCountLimit) {
         this.orderRepo = orderRepo;
         this.orderItemRepo = orderItemRepo;
         this.userRepo = userRepo;
         this.addressRepo = addressRepo;
         this.productRepo = productRepo;
+        this.inventoryService = inventoryService;
+        this.orderStatusService = orderStatusService;
+        this.outboxService = outboxService;
+        this.orderStatsService = orderStatsService;
+        this.exactCountLimit = exactCountLimit;
     }
 
     public List<OrderDTO> getAllOrders() {
@@ -82,75 +104,204 @@ public class OrderService {
         }
     }
 
-    public OrderDTO createOrder(OrderRequest orderRequest) {
+    /**
+     * Keyset page of a user's orders, newest first, optionally limited to one status.
+     * Ids for the page come from the (user_id, status, created_at) index; the orders, their items
+     * and address are then loaded together, so a page costs two queries however long the history is.
+     */
+    public CursorPageDTO<OrderDTO> getOrderPageByUserId(Long userId, String status, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        OrderRepoCustom.Filter filter = OrderRepoCustom.Filter.forUser(userId, parseStatusFilter(status));
+        Keyset after = Keyset.decode(cursor);
         try {
-            User user = userRepo.findById(orderRequest.getUserId())
-                    .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-            Address shippingAddress = addressRepo.findById(orderRequest.getAddressId())
-                    .orElseThrow(() -> new AccountNotFoundException("Shipping address not found"));
-            
-            if (!shippingAddress.getUser().getId().equals(user.getId())) {
-                throw new SecurityException("Shipping address does not belong to the user");
-            }
-
-            if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
-                throw new InvalidOrderException("Order must contain at least one item");
+            if (!userRepo.existsById(userId)) {
+                throw new UserNotFoundException("User not found with ID: " + userId);
             }
+            List<OrderDTO> page = new ArrayList<>();
+            String next = loadPage(filter, after, pageSize, page);
+            return new CursorPageDTO<>(page, next, pageSize);
+        } catch (Exception e) {
+            logger.error("Failed to fetch order page for user: {}", userId, e);
+            throw new OrderProcessingException("Failed to fetch user orders");
+        }
+    }
 
-            // Validate all products exist
-            for (OrderItemDTO item : orderRequest.getItems()) {
-                if (!productRepo.existsById(item.getProductId().intValue())) {
-                    throw new ProductNotFoundException("Product not found with ID: " + item.getProductId());
+    /**
+     * Admin search over all orders, newest first. The first page also reports how many orders match:
+     * counted exactly up to {@code app.orders.search.exact-count-limit}, estimated by the planner beyond it,
+     * so the cost of a page never depends on the size of the table.
+     */
+    public OrderSearchPageDTO searchOrders(Long userId, String status, LocalDate from, LocalDate to,
+                                           BigDecimal minAmount, BigDecimal maxAmount,
+                                           String cursor, Integer limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        int pageSize = pageSize(limit);
+        OrderRepoCustom.Filter filter = new OrderRepoCustom.Filter(userId, parseStatusFilter(status),
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(),
+                minAmount, maxAmount);
+        Keyset after = Keyset.decode(cursor);
+        try {
+            List<OrderDTO> page = new ArrayList<>();
+            String next = loadPage(filter, after, pageSize, page);
+
+            Long total = null;
+            boolean exact = false;
+            if (after == null) {
+                total = orderRepo.countUpTo(filter, exactCountLimit);
+                exact = total <= exactCountLimit;
+                if (!exact) {
+                    total = Math.max(total, orderRepo.estimateCount(filter).orElse(total));
                 }
             }
+            return new OrderSearchPageDTO(page, next, pageSize, total, exact);
+        } catch (Exception e) {
+            logger.error("Failed to search orders", e);
+            throw new OrderProcessingException("Failed to search orders");
+        }
+    }
 
-            BigDecimal calculatedSubtotal = calculateSubtotal(orderRequest.getItems());
-            BigDecimal receivedSubtotal = BigDecimal.valueOf(orderRequest.getTotalAmount());
-            
-            validateOrderTotals(calculatedSubtotal, receivedSubtotal);
+    public OrderDTO createOrder(OrderRequest orderRequest) {
+        try {
+            Orders order = buildValidatedOrder(orderRequest);
 
-            BigDecimal shipping = calculateShipping(calculatedSubtotal);
-            BigDecimal tax = calculateTax(calculatedSubtotal);
-            BigDecimal finalTotal = calculateFinalTotal(calculatedSubtotal, shipping, tax);
+            inventoryService.reserve(quantitiesByProduct(order.getItems()));
+            order.setStockReserved(true);
 
-            Orders order = buildOrder(user, shippingAddress, calculatedSubtotal, 
-                                     shipping, tax, finalTotal, orderRequest.getItems());
-            
             Orders savedOrder = orderRepo.save(order);
+            outboxService.record(OrderEvent.created(savedOrder));
+            orderStatsService.add(savedOrder.getUserId(), savedOrder.getStatus(), 1);
             return convertToDTO(savedOrder);
 
+        } catch (InsufficientStockException e) {
+            logger.warn("Order rejected: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to create order: {}", e.getMessage());
+            throw new OrderProcessingException("Failed to create order: " + e.getMessage());
+        }
+    }
+
+    /** Validates and prices a request into an unsaved order, for {@link OrderIntakeService} to save in a batch. */
+    public Orders prepareOrder(OrderRequest orderRequest) {
+        try {
+            return buildValidatedOrder(orderRequest);
         } catch (Exception e) {
             logger.error("Failed to create order: {}", e.getMessage());
             throw new OrderProcessingException("Failed to create order: " + e.getMessage());
         }
     }
 
+    /** What became of one order passed to {@link #createOrders}: the saved order, or why it was rejected. */
+    public record Placement(OrderDTO order, RuntimeException rejection) {}
+
+    /**
+     * Saves prepared orders in the current transaction, one placement per order in the same order.
+     * Orders whose stock cannot be reserved are left out without affecting the rest; items, outbox events
+     * and status counters of the saved orders are written with batched statements.
+     */
+    public List<Placement> createOrders(List<Orders> orders) {
+        List<InsufficientStockException> rejections = inventoryService.reserveEach(
+                orders.stream().map(order -> quantitiesByProduct(order.getItems())).toList());
+
+        List<Orders> accepted = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (rejections.get(i) == null) {
+                orders.get(i).setStockReserved(true);
+                accepted.add(orders.get(i));
+            }
+        }
+        orderRepo.saveAll(accepted);
+        outboxService.recordAll(accepted.stream().map(OrderEvent::created).toList());
+        orderStatsService.addAll(Orders.OrderStatus.PENDING,
+                accepted.stream().collect(Collectors.toMap(Orders::getUserId, order -> 1, Integer::sum)));
+
+        List<Placement> placements = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            InsufficientStockException rejection = rejections.get(i);
+            placements.add(rejection == null
+                    ? new Placement(convertToDTO(orders.get(i)), null)
+                    : new Placement(null, rejection));
+        }
+        return placements;
+    }
+
+    private Orders buildValidatedOrder(OrderRequest orderRequest) throws AccountNotFoundException {
+        User user = userRepo.findById(orderRequest.getUserId())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        Address shippingAddress = addressRepo.findById(orderRequest.getAddressId())
+                .orElseThrow(() -> new AccountNotFoundException("Shipping address not found"));
+
+        if (!shippingAddress.getUser().getId().equals(user.getId())) {
+            throw new SecurityException("Shipping address does not belong to the user");
+        }
+
+        if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
+            throw new InvalidOrderException("Order must contain at least one item");
+        }
+
+        // Prices come from the catalog and active deals, never from the client
+        priceItems(orderRequest.getItems());
+
+        BigDecimal calculatedSubtotal = calculateSubtotal(orderRequest.getItems());
+        BigDecimal receivedSubtotal = BigDecimal.valueOf(orderRequest.getTotalAmount());
+
+        validateOrderTotals(calculatedSubtotal, receivedSubtotal, orderRequest.getItems());
+
+        BigDecimal shipping = calculateShipping(calculatedSubtotal);
+        BigDecimal tax = calculateTax(calculatedSubtotal);
+        BigDecimal finalTotal = calculateFinalTotal(calculatedSubtotal, shipping, tax);
+
+        return buildOrder(user, shippingAddress, calculatedSubtotal,
+                          shipping, tax, finalTotal, orderRequest.getItems());
+    }
+
     public OrderDTO updateOrderStatus(Long orderId, String newStatus) {
         try {
             validateOrderId(orderId);
             validateStatus(newStatus);
 
-            Orders order = orderRepo.findById(orderId)
-                    .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
-
-            order.setStatus(Orders.OrderStatus.valueOf(newStatus));
-            order.setUpdatedAt(LocalDateTime.now());
-
-            return convertToDTO(orderRepo.save(order));
+            Orders.OrderStatus status = Orders.OrderStatus.valueOf(newStatus);
+            StatusTransitionOutcomeDTO outcome = orderStatusService.transition(List.of(orderId), status)
+                    .getOutcomes().get(0);
+            switch (outcome.getResult()) {
+                case NOT_FOUND -> throw new OrderNotFoundException("Order not found with ID: " + orderId);
+                case INVALID_TRANSITION -> throw new InvalidOrderException(
+                        "Cannot change order status from " + outcome.getPreviousStatus() + " to " + status);
+                default -> { }
+            }
+            return getOrderById(orderId);
+        } catch (OrderNotFoundException | InvalidOrderException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to update order status: {}", e.getMessage());
             throw new OrderProcessingException("Failed to update order status");
         }
     }
 
+    public BulkStatusUpdateResultDTO updateOrderStatuses(BulkStatusUpdateRequest request) {
+        validateStatus(request.getStatus());
+        return orderStatusService.transition(request.getOrderIds(), Orders.OrderStatus.valueOf(request.getStatus()));
+    }
+
     public void deleteOrder(Long id) {
         try {
             Orders order = orderRepo.findById(id)
                     .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
 
+            // A cancelled order has already had its stock released
+            if (order.isStockReserved() && order.getStatus() != Orders.OrderStatus.CANCELLED && !order.getItems().isEmpty()) {
+                inventoryService.release(quantitiesByProduct(order.getItems()));
+            }
             orderItemRepo.deleteByOrder(order);
             orderRepo.delete(order);
+            orderStatsService.add(order.getUserId(), order.getStatus(), -1);
             
             logger.info("Order deleted successfully: {}", id);
         } catch (Exception e) {
@@ -161,21 +312,16 @@ public class OrderService {
 
     public OrderDTO cancelOrder(Long orderId) {
         try {
-            Orders order = orderRepo.findById(orderId)
-                    .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
-
-            if (order.getStatus() == Orders.OrderStatus.CANCELLED) {
-                throw new InvalidOrderException("Order is already cancelled");
-            }
-
-            if (order.getStatus() == Orders.OrderStatus.DELIVERED) {
-                throw new InvalidOrderException("Cannot cancel a delivered order");
+            StatusTransitionOutcomeDTO outcome = orderStatusService.transition(List.of(orderId), Orders.OrderStatus.CANCELLED)
+                    .getOutcomes().get(0);
+            switch (outcome.getResult()) {
+                case NOT_FOUND -> throw new OrderNotFoundException("Order not found with ID: " + orderId);
+                case UNCHANGED -> throw new InvalidOrderException("Order is already cancelled");
+                case INVALID_TRANSITION -> throw new InvalidOrderException(
+                        "Cannot cancel an order that is " + outcome.getPreviousStatus());
+                default -> { }
             }
-
-            order.setStatus(Orders.OrderStatus.CANCELLED);
-            order.setUpdatedAt(LocalDateTime.now());
-
-            return convertToDTO(orderRepo.save(order));
+            return getOrderById(orderId);
         } catch (Exception e) {
             logger.error("Failed to cancel order: {}", orderId, e);
             throw new OrderProcessingException("Failed to cancel order: " + e.getMessage());
@@ -184,25 +330,86 @@ public class OrderService {
 
     public List<Map<String, Object>> getOrderCountByStatusForUser(Long userId) {
         try {
-            if (!userRepo.existsById(userId)) {
-                throw new UserNotFoundException("User not found with ID: " + userId);
+            Map<Orders.OrderStatus, Long> counts = orderStatsService.getCounts(userId);
+            if (counts == null) {
+                // No counters yet: an unknown user, or one the first reconciliation has not reached
+                if (!userRepo.existsById(userId)) {
+                    throw new UserNotFoundException("User not found with ID: " + userId);
+                }
+                return orderRepo.getOrderCountByStatus(userId);
             }
-            return orderRepo.getOrderCountByStatus(userId);
+            List<Map<String, Object>> result = new ArrayList<>();
+            counts.forEach((status, count) -> {
+                if (count > 0) {
+                    result.add(Map.of("status", status, "count", count));
+                }
+            });
+            return result;
         } catch (Exception e) {
             logger.error("Failed to get order counts by status for user: {}", userId, e);
             throw new OrderProcessingException("Failed to get order status counts");
         }
     }
 
+    private Map<Integer, Integer> quantitiesByProduct(List<OrderItem> items) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            if (item.getQuantity() <= 0) {
+                throw new InvalidOrderException("Quantity must be positive for product " + item.getProductId());
+            }
+            quantities.merge(item.getProductId().intValue(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /** Resolves every line item with one query and sets its unit price to the current, deal-adjusted price. */
+    private void priceItems(List<OrderItemDTO> items) {
+        Set<Integer> productIds = new HashSet<>();
+        for (OrderItemDTO item : items) {
+            if (item.getProductId() == null) {
+                throw new InvalidOrderException("Every item needs a product ID");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new InvalidOrderException("Quantity must be positive for product " + item.getProductId());
+            }
+            productIds.add(item.getProductId().intValue());
+        }
+
+        Map<Integer, ProductPriceDTO> prices = new HashMap<>();
+        for (ProductPriceDTO price : productRepo.findPrices(productIds, LocalDate.now(), LocalTime.now())) {
+            prices.put(price.getId(), price);
+        }
+
+        for (OrderItemDTO item : items) {
+            ProductPriceDTO price = prices.get(item.getProductId().intValue());
+            if (price == null) {
+                throw new ProductNotFoundException("Product not found with ID: " + item.getProductId());
+            }
+            if (!price.isAvailable()) {
+                throw new InvalidOrderException("Product is not available: " + item.getProductId());
+            }
+            BigDecimal unitPrice = price.getPrice();
+            if (price.getDiscountPercentage() != null) {
+                unitPrice = unitPrice.multiply(ONE_HUNDRED.subtract(price.getDiscountPercentage()))
+                        .divide(ONE_HUNDRED);
+            }
+            item.setPrice(unitPrice.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
     private BigDecimal calculateSubtotal(List<OrderItemDTO> items) {
         return items.stream()
                 .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
-    private void validateOrderTotals(BigDecimal calculated, BigDecimal received) {
+    // Rejects a basket the client priced differently, e.g. after a deal ended, instead of silently charging more
+    private void validateOrderTotals(BigDecimal calculated, BigDecimal received, List<OrderItemDTO> items) {
+        // Clients round only the total, the server rounds each unit price
+        int units = items.stream().mapToInt(OrderItemDTO::getQuantity).sum();
+        BigDecimal allowed = MAX_TOTAL_VARIANCE.add(UNIT_ROUNDING.multiply(BigDecimal.valueOf(units)));
         BigDecimal variance = calculated.subtract(received).abs();
-        if (variance.compareTo(MAX_TOTAL_VARIANCE) > 0) {
+        if (variance.compareTo(allowed) > 0) {
             throw new InvalidOrderTotalException(
                 String.format("Order total validation failed. Calculated: %s, Received: %s", 
                 calculated, received));
@@ -273,6 +480,65 @@ public class OrderService {
         }
     }
 
+    /** Fills {@code page} with the next orders after {@code after} and returns the cursor for the one after it. */
+    private String loadPage(OrderRepoCustom.Filter filter, Keyset after, int pageSize, List<OrderDTO> page) {
+        // Fetch one extra id to learn whether another page exists
+        List<Long> ids = orderRepo.findPageIds(filter,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(), pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        Map<Long, Orders> loaded = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Orders order : orderRepo.findWithItemsByIdIn(ids)) {
+                loaded.put(order.getId(), order);
+            }
+        }
+        for (Long id : ids) {
+            Orders order = loaded.get(id);
+            if (order != null) {
+                page.add(convertToDTO(order));
+            }
+        }
+        if (!hasMore || page.isEmpty()) {
+            return null;
+        }
+        OrderDTO last = page.get(page.size() - 1);
+        return CursorCodec.encode(last.getCreatedAt().toString(), String.valueOf(last.getId()));
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static Orders.OrderStatus parseStatusFilter(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return Orders.OrderStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + status);
+        }
+    }
+
+    /** Position of the last order on a page: its creation time and id. */
+    private record Keyset(LocalDateTime createdAt, Long id) {
+
+        static Keyset decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                return new Keyset(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException | NullPointerException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+        }
+    }
+
     private OrderDTO convertToDTO(Orders order) {
         if (order == null) {
             return null;
@@ -0,0 +1,215 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.model.Orders.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-user order counts by status, kept in user_order_stats so the account page reads one row.
+ * Every change to an order's status adds its delta to the owner's row in the same transaction; a periodic
+ * job recounts users in batches and fixes any row that has drifted. Archived orders stay counted.
+ * Only a recount creates a row, so a user without one is read from the orders themselves until then.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final String COLUMNS = columns(column -> column);
+
+    private static final String READ_SQL = "SELECT " + COLUMNS + " FROM user_order_stats WHERE user_id = ?";
+    private static final String ADD_SQL = addDeltasSql(
+            "VALUES (?, " + columns(column -> "?") + ", CAST(? AS timestamp))");
+    private static final String ANY_MISSING_SQL =
+            "SELECT EXISTS (SELECT 1 FROM \"user\" u WHERE NOT EXISTS (SELECT 1 FROM user_order_stats s WHERE s.user_id = u.id))";
+    private static final String BATCH_END_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM \"user\" WHERE id > ? ORDER BY id LIMIT ?) batch";
+    // Recounts users in (?, ?] from live and archived orders and overwrites only the rows that differ
+    private static final String RECONCILE_SQL = recountSql("");
+    // The same, for users in (?, ?] that have no row yet
+    private static final String BACKFILL_SQL =
+            recountSql(" AND NOT EXISTS (SELECT 1 FROM user_order_stats s WHERE s.user_id = u.id)");
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final Executor executor;
+    private final int reconcileBatchSize;
+
+    public OrderStatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             @Qualifier("taskExecutor") Executor executor,
+                             @Value("${app.orders.stats.reconcile-batch-size:1000}") int reconcileBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // A recount that overlaps a concurrent counter update fails to serialize instead of overwriting it
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.executor = executor;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    /**
+     * An upsert that adds the per-status deltas produced by {@code query} to the counters of users that already
+     * have a row; users without one are left to the next recount. The query must yield user_id, one delta per
+     * status in declaration order, then updated_at. Rows are never deleted, so it only ever takes the update path.
+     */
+    static String addDeltasSql(String query) {
+        return "INSERT INTO user_order_stats (user_id, " + COLUMNS + ", updated_at)" +
+               " SELECT * FROM (" + query + ") AS d (user_id, " + COLUMNS + ", updated_at)" +
+               " WHERE EXISTS (SELECT 1 FROM user_order_stats s WHERE s.user_id = d.user_id) ORDER BY d.user_id" +
+               " ON CONFLICT (user_id) DO UPDATE SET " +
+               columns(column -> column + " = user_order_stats." + column + " + EXCLUDED." + column) +
+               ", updated_at = EXCLUDED.updated_at";
+    }
+
+    private static String recountSql(String userFilter) {
+        return "WITH actual AS (" +
+               "  SELECT u.id AS user_id, " +
+               Stream.of(STATUSES).map(s -> "COUNT(o.user_id) FILTER (WHERE o.status = '" + s.name() + "') AS " + column(s))
+                       .collect(Collectors.joining(", ")) +
+               "  FROM \"user\" u LEFT JOIN (SELECT user_id, status FROM orders" +
+               "    UNION ALL SELECT user_id, status FROM orders_archive) o ON o.user_id = u.id" +
+               "  WHERE u.id > ? AND u.id <= ?" + userFilter + " GROUP BY u.id" +
+               ") INSERT INTO user_order_stats (user_id, " + COLUMNS + ", updated_at)" +
+               " SELECT user_id, " + COLUMNS + ", ? FROM actual" +
+               " ON CONFLICT (user_id) DO UPDATE SET " + columns(column -> column + " = EXCLUDED." + column) +
+               ", updated_at = EXCLUDED.updated_at" +
+               " WHERE (" + columns(column -> "user_order_stats." + column) + ") IS DISTINCT FROM (" +
+               columns(column -> "EXCLUDED." + column) + ")";
+    }
+
+    private static String column(OrderStatus status) {
+        return status.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String columns(UnaryOperator<String> format) {
+        return Stream.of(STATUSES).map(s -> format.apply(column(s))).collect(Collectors.joining(", "));
+    }
+
+    /** Counts by status, or null if the user has no counters row yet. */
+    public Map<OrderStatus, Long> getCounts(Long userId) {
+        return jdbcTemplate.query(READ_SQL, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+            for (int i = 0; i < STATUSES.length; i++) {
+                counts.put(STATUSES[i], rs.getLong(i + 1));
+            }
+            return counts;
+        }, userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long userId, OrderStatus status, int delta) {
+        if (userId == null) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(ADD_SQL);
+            ps.setLong(1, userId);
+            for (int i = 0; i < STATUSES.length; i++) {
+                ps.setLong(i + 2, STATUSES[i] == status ? delta : 0);
+            }
+            ps.setTimestamp(STATUSES.length + 2, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        });
+    }
+
+    /** Adds {@code deltas} (by user id) to the users' counters for {@code status} with one batched upsert. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(OrderStatus status, Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // User id order, so concurrent batches take the rows in the same order
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(ADD_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            for (int i = 0; i < STATUSES.length; i++) {
+                ps.setLong(i + 2, STATUSES[i] == status ? row.getValue() : 0);
+            }
+            ps.setTimestamp(STATUSES.length + 2, now);
+        });
+    }
+
+    // Creates rows for users that have none, in the background rather than holding up startup; a backfill
+    // cut short by a restart carries on with the users it had not reached
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(ANY_MISSING_SQL, Boolean.class))) {
+            executor.execute(() -> recount(BACKFILL_SQL));
+        }
+    }
+
+    /** Recounts every user's orders and corrects counters that disagree; returns how many rows were written. */
+    @Scheduled(cron = "${app.orders.stats.reconcile-cron:0 0 4 * * *}")
+    public long reconcile() {
+        return recount(RECONCILE_SQL);
+    }
+
+    private long recount(String sql) {
+        long start = System.currentTimeMillis();
+        long written = 0;
+        long skipped = 0;
+        long from = 0;
+        while (true) {
+            Long to = jdbcTemplate.queryForObject(BATCH_END_SQL, Long.class, from, reconcileBatchSize);
+            if (to == null) {
+                break;
+            }
+            Integer count = recountRange(sql, from, to);
+            if (count == null) {
+                skipped++;
+            } else {
+                written += count;
+            }
+            from = to;
+        }
+        if (written > 0 || skipped > 0) {
+            logger.info("Reconciled order counters in {} ms: {} rows written, {} batches left for the next run",
+                    System.currentTimeMillis() - start, written, skipped);
+        }
+        return written;
+    }
+
+    private Integer recountRange(String sql, long from, long to) {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            try {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                return snapshotTransaction.execute(status -> jdbcTemplate.update(sql, from, to, now));
+            } catch (ConcurrencyFailureException e) {
+                logger.debug("Order counter recount for users ({}, {}] raced an update, attempt {}", from, to, attempt);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Dto.BulkStatusUpdateResultDTO;
+import com.prathamesh.ShoppingBackend.Dto.StatusTransitionOutcomeDTO;
+import com.prathamesh.ShoppingBackend.Dto.StatusTransitionOutcomeDTO.Result;
+import com.prathamesh.ShoppingBackend.model.Orders.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves orders between statuses along the transitions allowed by {@link OrderStatus#next()}.
+ * A whole batch is applied with one UPDATE that only matches orders whose current status may move to the
+ * target, and the same statement writes their order_status_history rows and outbox events, so there is no
+ * read-then-write window and concurrent changes to the same order are serialized by its row lock.
+ */
+@Service
+public class OrderStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusService.class);
+
+    // Locks matching rows, captures their old status, updates them, records history, moves the owners'
+    // status counters and writes the outbox events in one statement; the event payload matches the JSON form of OrderEvent
+    private static final String TRANSITION_SQL =
+            "WITH params AS (SELECT CAST(? AS varchar) AS target, CAST(? AS timestamp) AS changed_at), " +
+            "previous AS (" +
+            "  SELECT id, status FROM orders WHERE id = ANY(?) AND status = ANY(?) FOR UPDATE" +
+            "), changed AS (" +
+            "  UPDATE orders o SET status = params.target, updated_at = params.changed_at FROM previous, params" +
+            "  WHERE o.id = previous.id" +
+            "  RETURNING o.id, o.user_id, o.total_amount, previous.status AS previous_status" +
+            "), history AS (" +
+            "  INSERT INTO order_status_history (order_id, from_status, to_status, changed_at, changed_by)" +
+            "  SELECT changed.id, previous_status, params.target, params.changed_at, ? FROM changed, params" +
+            "), stats AS (" + OrderStatsService.addDeltasSql(
+            "  SELECT changed.user_id, " + statusDeltas() + ", params.changed_at FROM changed, params" +
+            "  WHERE changed.user_id IS NOT NULL GROUP BY changed.user_id, params.changed_at ORDER BY changed.user_id") +
+            "), outbox AS (" +
+            "  INSERT INTO outbox_event (event_type, aggregate_id, payload, created_at, available_at, attempts)" +
+            "  SELECT 'STATUS_CHANGED', changed.id, json_build_object('type', 'STATUS_CHANGED', 'orderId', changed.id," +
+            "    'userId', changed.user_id, 'totalAmount', changed.total_amount, 'fromStatus', previous_status," +
+            "    'toStatus', params.target, 'occurredAt', params.changed_at)::text, params.changed_at, params.changed_at, 0" +
+            "  FROM changed, params" +
+            ") SELECT id, previous_status FROM changed";
+    private static final String CURRENT_STATUS_SQL = "SELECT id, status FROM orders WHERE id = ANY(?)";
+    // Only orders that reserved stock give it back
+    private static final String RELEASED_QUANTITIES_SQL =
+            "SELECT i.product_id, SUM(i.quantity) FROM order_item i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.order_id = ANY(?) AND o.stock_reserved GROUP BY i.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final int maxBatchSize;
+
+    public OrderStatusService(JdbcTemplate jdbcTemplate, InventoryService inventoryService, OutboxService outboxService,
+                              @Value("${app.orders.bulk-status.max-ids:10000}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryService = inventoryService;
+        this.outboxService = outboxService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Moves every listed order that is allowed to reach {@code target} and reports what happened to each id,
+     * in request order. Orders moving to CANCELLED have their stock released in the same transaction.
+     */
+    @Transactional
+    public BulkStatusUpdateResultDTO transition(Collection<Long> orderIds, OrderStatus target) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        ids.remove(null);
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " orders can be updated at once");
+        }
+
+        Map<Long, String> updated = new HashMap<>();
+        Set<OrderStatus> sources = OrderStatus.sourcesOf(target);
+        if (!sources.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String[] sourceNames = sources.stream().map(Enum::name).toArray(String[]::new);
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(TRANSITION_SQL);
+                ps.setString(1, target.name());
+                ps.setTimestamp(2, now);
+                ps.setArray(3, con.createArrayOf("bigint", ids.toArray()));
+                ps.setArray(4, con.createArrayOf("varchar", sourceNames));
+                ps.setString(5, currentActor());
+                return ps;
+            }, rs -> {
+                updated.put(rs.getLong(1), rs.getString(2));
+            });
+        }
+
+        if (!updated.isEmpty()) {
+            outboxService.wakeDispatcherAfterCommit();
+            if (target == OrderStatus.CANCELLED) {
+                releaseStock(updated.keySet());
+            }
+        }
+
+        Map<Long, String> current = new HashMap<>();
+        List<Long> rest = ids.stream().filter(id -> !updated.containsKey(id)).toList();
+        if (!rest.isEmpty()) {
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(CURRENT_STATUS_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", rest.toArray()));
+                return ps;
+            }, rs -> {
+                current.put(rs.getLong(1), rs.getString(2));
+            });
+        }
+
+        List<StatusTransitionOutcomeDTO> outcomes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (updated.containsKey(id)) {
+                outcomes.add(new StatusTransitionOutcomeDTO(id, Result.UPDATED, updated.get(id)));
+            } else if (!current.containsKey(id)) {
+                outcomes.add(new StatusTransitionOutcomeDTO(id, Result.NOT_FOUND, null));
+            } else {
+                String status = current.get(id);
+                Result result = target.name().equals(status) ? Result.UNCHANGED : Result.INVALID_TRANSITION;
+                outcomes.add(new StatusTransitionOutcomeDTO(id, result, status));
+            }
+        }
+        logger.info("Moved {} of {} orders to {}", updated.size(), ids.size(), target);
+        return new BulkStatusUpdateResultDTO(target.name(), ids.size(), updated.size(), outcomes);
+    }
+
+    private void releaseStock(Collection<Long> orderIds) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(RELEASED_QUANTITIES_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", orderIds.toArray()));
+            return ps;
+        }, rs -> {
+            quantities.put(rs.getInt(1), rs.getInt(2));
+        });
+        if (!quantities.isEmpty()) {
+            inventoryService.release(quantities);
+        }
+    }
+
+    // Per status: orders that moved into it minus orders that left it
+    private static String statusDeltas() {
+        return Arrays.stream(OrderStatus.values())
+                .map(s -> "COUNT(*) FILTER (WHERE params.target = '" + s.name() + "')" +
+                          " - COUNT(*) FILTER (WHERE previous_status = '" + s.name() + "')")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,207 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to the in-process {@link OrderEventSubscriber}s on a few virtual threads.
+ * Each worker claims a batch with FOR UPDATE SKIP LOCKED, so workers (and other instances) never wait on or
+ * deliver each other's rows, hands every event to all subscribers and deletes the delivered rows in the same
+ * transaction. A crash before commit leaves the rows in place to be delivered again; an event whose delivery
+ * throws is retried with exponential backoff. Events are not ordered across workers.
+ */
+@Service
+public class OutboxDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String CLAIM_SQL =
+            "SELECT id, payload, created_at, attempts FROM outbox_event WHERE available_at <= ? " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE outbox_event SET attempts = attempts + 1, available_at = ?, last_error = ? WHERE id = ?";
+    private static final String BACKLOG_SQL = "SELECT COUNT(*), MIN(created_at) FROM outbox_event";
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<OrderEventSubscriber> subscribers;
+    private final int workers;
+    private final int batchSize;
+    private final long pollMillis;
+
+    private final Semaphore signal = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer lag;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper, List<OrderEventSubscriber> subscribers,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.workers:2}") int workers,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.poll-ms:500}") long pollMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.subscribers = subscribers;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+
+        this.delivered = Counter.builder("outbox.events.delivered").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed").register(meterRegistry);
+        this.lag = Timer.builder("outbox.delivery.lag")
+                .description("Time from an event being written to all subscribers having seen it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog", backlog, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.oldest.age.seconds", oldestAgeSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofVirtual().name("outbox-dispatcher-" + i).start(this::work));
+        }
+        logger.info("Outbox dispatcher started with {} workers for {} subscribers", workers, subscribers.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        signal.release(workers);
+        for (Thread thread : threads) {
+            try {
+                thread.join(Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Wakes one idle worker; called after a transaction that wrote events commits. */
+    public void wakeUp() {
+        if (signal.availablePermits() < workers) {
+            signal.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.backlog-refresh-ms:5000}")
+    public void refreshBacklog() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(BACKLOG_SQL, rs -> {
+            backlog.set(rs.getLong(1));
+            Timestamp oldest = rs.getTimestamp(2);
+            oldestAgeSeconds.set(oldest == null ? 0
+                    : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toSeconds()));
+        }));
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                if (dispatchBatch() < batchSize) {
+                    signal.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Outbox dispatch failed", e);
+                try {
+                    Thread.sleep(pollMillis * 10);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Claims, delivers and settles one batch; returns how many events it claimed. */
+    int dispatchBatch() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Claimed> batch = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, n) -> new Claimed(rs.getLong("id"), rs.getString("payload"),
+                            rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("attempts")),
+                    Timestamp.valueOf(now), batchSize);
+
+            List<Object[]> done = new ArrayList<>();
+            List<Object[]> retries = new ArrayList<>();
+            for (Claimed event : batch) {
+                try {
+                    OrderEvent payload = objectMapper.readValue(event.payload(), OrderEvent.class);
+                    for (OrderEventSubscriber subscriber : subscribers) {
+                        subscriber.onOrderEvent(event.id(), payload);
+                    }
+                    done.add(new Object[]{event.id()});
+                    lag.record(Duration.between(event.createdAt(), LocalDateTime.now()));
+                } catch (Exception e) {
+                    Duration backoff = backoff(event.attempts());
+                    logger.warn("Delivery of outbox event {} failed (attempt {}), retrying in {}s: {}",
+                            event.id(), event.attempts() + 1, backoff.toSeconds(), e.toString());
+                    retries.add(new Object[]{Timestamp.valueOf(now.plus(backoff)), truncate(e.toString()), event.id()});
+                }
+            }
+            if (!done.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, done);
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETRY_SQL, retries);
+            }
+            delivered.increment(done.size());
+            failed.increment(retries.size());
+            return batch.size();
+        });
+        return claimed == null ? 0 : claimed;
+    }
+
+    private static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts, 20);
+        return seconds > MAX_BACKOFF.toSeconds() ? MAX_BACKOFF : Duration.ofSeconds(seconds);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private record Claimed(long id, String payload, LocalDateTime createdAt, int attempts) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/** Writes order events to the outbox inside the caller's transaction. */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_event (event_type, aggregate_id, payload, created_at, available_at, attempts) " +
+            "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher dispatcher;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxDispatcher dispatcher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEvent event) {
+        Timestamp now = Timestamp.valueOf(event.occurredAt());
+        jdbcTemplate.update(INSERT_SQL, event.type().name(), event.orderId(), serialize(event), now, now);
+        wakeDispatcherAfterCommit();
+    }
+
+    /** Writes several events with one batched insert. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            Timestamp now = Timestamp.valueOf(event.occurredAt());
+            ps.setString(1, event.type().name());
+            ps.setLong(2, event.orderId());
+            ps.setString(3, serialize(event));
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+        wakeDispatcherAfterCommit();
+    }
+
+    private String serialize(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order event cannot be serialized", e);
+        }
+    }
+
+    /** Lets the dispatcher pick up events written by the current transaction without waiting for its next poll. */
+    public void wakeDispatcherAfterCommit() {
+        AfterCommit.run(dispatcher::wakeUp);
+    }
+}
@@ -0,0 +1,76 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import com.prathamesh.ShoppingBackend.util.RecordWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes the whole catalog as NDJSON or CSV, reading it in id order a page of {@link #PAGE_SIZE} at a time.
+ * Each page is read in a short transaction of its own and written after it ends, so neither memory nor a
+ * pooled connection is held for the length of the download.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+
+    private static final int PAGE_SIZE = 500;
+    private static final String[] COLUMNS = {
+            "id", "productName", "brand", "desc", "category", "releaseDate", "available", "quantity", "price"
+    };
+
+    private final ProductRepo productRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ProductExportService(ProductRepo productRepo, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.productRepo = productRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int rows = 0;
+        try (RecordWriter writer = RecordWriter.open(format, COLUMNS, objectMapper, out)) {
+            List<Product> page;
+            int afterId = 0;
+            do {
+                int after = afterId;
+                // Loaded and detached in a short read; the page is written after the connection is back in the pool
+                page = readOnlyTx.execute(status -> productRepo.findPageAfter(after, Limit.of(PAGE_SIZE)));
+                for (Product product : page) {
+                    writer.write(product.getId(), product.getProductName(), product.getBrand(), product.getDesc(),
+                            product.getCategory(), formatDate(product.getReleaseDate()), product.isAvailable(),
+                            product.getQuantity(), product.getPrice());
+                }
+                writer.flush();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                    rows += page.size();
+                }
+            } while (page.size() == PAGE_SIZE);
+        }
+        logger.info("Exported {} products as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    private static String formatDate(Date date) {
+        return date == null ? null : Instant.ofEpochMilli(date.getTime()).toString();
+    }
+}
@@ -0,0 +1,381 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Dto.ProductBrowseDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+import com.prathamesh.ShoppingBackend.repository.DealsRepo;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.repository.ProductRepoCustom.SortField;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import com.prathamesh.ShoppingBackend.util.CursorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps one bitmap per facet value (category, brand, price bucket, availability, in-deal) over
+ * an in-memory copy of the product summaries. Filters are resolved by AND-ing bitmaps, and the
+ * count for each facet value is taken against every filter except the one on its own dimension.
+ */
+@Service
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String PRICE = "price";
+    public static final String AVAILABLE = "available";
+    public static final String IN_DEAL = "inDeal";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final BigDecimal[] PRICE_BUCKETS = {
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"),
+            new BigDecimal("500"), new BigDecimal("1000")
+    };
+    private static final int REBUILD_BATCH = 500;
+
+    private final ProductRepo productRepo;
+    private final DealsRepo dealsRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ordered by product id, so a page is read off in cursor order
+    private final NavigableMap<Integer, Integer> slotById = new TreeMap<>();
+    private final List<ProductSummaryDTO> bySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet occupied = new BitSet();
+    private final Map<String, BitSet> categories = new TreeMap<>();
+    private final Map<String, BitSet> brands = new TreeMap<>();
+    private final Map<String, BitSet> priceBuckets = new LinkedHashMap<>();
+    private final BitSet available = new BitSet();
+    private final BitSet inDeal = new BitSet();
+    private Set<Integer> dealProductIds = Set.of();
+    // While a rebuild runs: the latest write per product id, null for a removal, replayed onto the rebuilt index
+    private Map<Integer, ProductSummaryDTO> rebuildWrites;
+
+    public ProductFacetIndex(ProductRepo productRepo, DealsRepo dealsRepo) {
+        this.productRepo = productRepo;
+        this.dealsRepo = dealsRepo;
+        for (int i = 0; i <= PRICE_BUCKETS.length; i++) {
+            priceBuckets.put(bucketLabel(i), new BitSet());
+        }
+    }
+
+    /** Filter values for {@link #browse}; null fields are not filtered on. */
+    public record Filter(Set<String> categories, Set<String> brands, BigDecimal minPrice, BigDecimal maxPrice,
+                         Boolean available, Boolean inDeal) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        recordWrites(true);
+        List<ProductSummaryDTO> all;
+        Set<Integer> inDealIds;
+        try {
+            all = load();
+            inDealIds = new HashSet<>(dealsRepo.findProductIdsInActiveDeals(LocalDate.now(), LocalTime.now()));
+        } catch (RuntimeException e) {
+            recordWrites(false);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            bySlot.clear();
+            freeSlots.clear();
+            occupied.clear();
+            categories.clear();
+            brands.clear();
+            priceBuckets.values().forEach(BitSet::clear);
+            available.clear();
+            inDeal.clear();
+            dealProductIds = inDealIds;
+            all.forEach(this::add);
+            // Writes committed while the batches were being read may be missing from them
+            rebuildWrites.forEach((id, summary) -> {
+                removeSlot(id);
+                if (summary != null) {
+                    add(summary);
+                }
+            });
+            rebuildWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product facet index built: {} products, {} categories, {} brands",
+                all.size(), categories.size(), brands.size());
+    }
+
+    private List<ProductSummaryDTO> load() {
+        List<ProductSummaryDTO> all = new ArrayList<>();
+        Integer afterId = null;
+        List<ProductSummaryDTO> batch;
+        do {
+            batch = productRepo.findSummaries(SortField.ID, false, null, afterId, REBUILD_BATCH);
+            all.addAll(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        return all;
+    }
+
+    private void recordWrites(boolean on) {
+        lock.writeLock().lock();
+        try {
+            rebuildWrites = on ? new HashMap<>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Deals start and end with the clock, so in-deal membership is recomputed periodically as well as on writes. */
+    @Scheduled(fixedDelayString = "${app.facets.deal-refresh-ms:60000}", initialDelayString = "${app.facets.deal-refresh-ms:60000}")
+    public void refreshDeals() {
+        Set<Integer> ids = new HashSet<>(dealsRepo.findProductIdsInActiveDeals(LocalDate.now(), LocalTime.now()));
+        lock.writeLock().lock();
+        try {
+            dealProductIds = ids;
+            inDeal.clear();
+            slotById.forEach((id, slot) -> {
+                if (ids.contains(id)) inDeal.set(slot);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refreshDealsAfterCommit() {
+        AfterCommit.run(() -> {
+            try {
+                refreshDeals();
+            } catch (Exception e) {
+                logger.error("Failed to refresh in-deal facet", e);
+            }
+        });
+    }
+
+    public void index(ProductSummaryDTO summary) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(summary.getId());
+            add(summary);
+            if (rebuildWrites != null) {
+                rebuildWrites.put(summary.getId(), summary);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(productId);
+            if (rebuildWrites != null) {
+                rebuildWrites.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductBrowseDTO browse(Filter filter, Integer afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryMask = unionOf(categories, filter.categories());
+            BitSet brandMask = unionOf(brands, filter.brands());
+            BitSet priceMask = priceRange(filter.minPrice(), filter.maxPrice());
+            BitSet availableMask = flag(available, filter.available());
+            BitSet inDealMask = flag(inDeal, filter.inDeal());
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, counts(categories, and(brandMask, priceMask, availableMask, inDealMask)));
+            facets.put(BRAND, counts(brands, and(categoryMask, priceMask, availableMask, inDealMask)));
+            facets.put(PRICE, counts(priceBuckets, and(categoryMask, brandMask, availableMask, inDealMask)));
+            facets.put(AVAILABLE, booleanCounts(available, and(categoryMask, brandMask, priceMask, inDealMask)));
+            facets.put(IN_DEAL, booleanCounts(inDeal, and(categoryMask, brandMask, priceMask, availableMask)));
+
+            BitSet matches = and(categoryMask, brandMask, priceMask, availableMask, inDealMask);
+            // Walk ids upwards from the cursor and stop once the page is full, instead of sorting every match
+            Map<Integer, Integer> fromCursor = afterId == null ? slotById : slotById.tailMap(afterId, false);
+            List<ProductSummaryDTO> hits = new ArrayList<>(limit);
+            String next = null;
+            for (int slot : fromCursor.values()) {
+                if (!matches.get(slot)) {
+                    continue;
+                }
+                if (hits.size() == limit) {
+                    next = CursorCodec.encode(String.valueOf(hits.get(limit - 1).getId()));
+                    break;
+                }
+                hits.add(bySlot.get(slot));
+            }
+            return new ProductBrowseDTO(hits, next, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductSummaryDTO summary) {
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = bySlot.size();
+            bySlot.add(summary);
+        } else {
+            slot = freeSlots.pop();
+            bySlot.set(slot, summary);
+        }
+        slotById.put(summary.getId(), slot);
+        occupied.set(slot);
+        if (summary.getCategory() != null) {
+            categories.computeIfAbsent(summary.getCategory(), k -> new BitSet()).set(slot);
+        }
+        if (summary.getBrand() != null) {
+            brands.computeIfAbsent(summary.getBrand(), k -> new BitSet()).set(slot);
+        }
+        if (summary.getPrice() != null) {
+            priceBuckets.get(bucketLabel(bucketOf(summary.getPrice()))).set(slot);
+        }
+        if (summary.isAvailable()) {
+            available.set(slot);
+        }
+        if (dealProductIds.contains(summary.getId())) {
+            inDeal.set(slot);
+        }
+    }
+
+    private void removeSlot(int productId) {
+        Integer slot = slotById.remove(productId);
+        if (slot == null) {
+            return;
+        }
+        ProductSummaryDTO summary = bySlot.set(slot, null);
+        occupied.clear(slot);
+        clearValue(categories, summary.getCategory(), slot);
+        clearValue(brands, summary.getBrand(), slot);
+        priceBuckets.values().forEach(bits -> bits.clear(slot));
+        available.clear(slot);
+        inDeal.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    private static void clearValue(Map<String, BitSet> facet, String value, int slot) {
+        if (value == null) return;
+        BitSet bits = facet.get(value);
+        if (bits == null) return;
+        bits.clear(slot);
+        if (bits.isEmpty()) {
+            facet.remove(value);
+        }
+    }
+
+    private BitSet unionOf(Map<String, BitSet> facet, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (String value : values) {
+            BitSet bits = facet.get(value);
+            if (bits != null) union.or(bits);
+        }
+        return union;
+    }
+
+    // Buckets entirely inside the range are OR-ed in whole; only the edge buckets are checked per product
+    private BitSet priceRange(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        int low = min == null ? 0 : bucketOf(min);
+        int high = max == null ? PRICE_BUCKETS.length : bucketOf(max);
+        BitSet range = new BitSet();
+        for (int bucket = low; bucket <= high; bucket++) {
+            BitSet bits = priceBuckets.get(bucketLabel(bucket));
+            if (bucket > low && bucket < high) {
+                range.or(bits);
+                continue;
+            }
+            for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+                BigDecimal price = bySlot.get(slot).getPrice();
+                if ((min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0)) {
+                    range.set(slot);
+                }
+            }
+        }
+        return range;
+    }
+
+    private BitSet flag(BitSet bits, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        if (wanted) {
+            return bits;
+        }
+        BitSet negated = (BitSet) bits.clone();
+        negated.flip(0, occupied.length());
+        return negated;
+    }
+
+    private BitSet and(BitSet... masks) {
+        BitSet result = (BitSet) occupied.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) result.and(mask);
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> counts(Map<String, BitSet> facet, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        facet.forEach((value, bits) -> {
+            BitSet hit = (BitSet) bits.clone();
+            hit.and(base);
+            counts.put(value, hit.cardinality());
+        });
+        return counts;
+    }
+
+    private static Map<String, Integer> booleanCounts(BitSet bits, BitSet base) {
+        BitSet hit = (BitSet) bits.clone();
+        hit.and(base);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("true", hit.cardinality());
+        counts.put("false", base.cardinality() - hit.cardinality());
+        return counts;
+    }
+
+    private static int bucketOf(BigDecimal price) {
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            if (price.compareTo(PRICE_BUCKETS[i]) < 0) return i;
+        }
+        return PRICE_BUCKETS.length;
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) return "0-" + PRICE_BUCKETS[0];
+        if (bucket == PRICE_BUCKETS.length) return PRICE_BUCKETS[bucket - 1] + "+";
+        return PRICE_BUCKETS[bucket - 1] + "-" + PRICE_BUCKETS[bucket];
+    }
+}
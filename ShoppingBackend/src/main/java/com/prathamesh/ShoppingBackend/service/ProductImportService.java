@@ -0,0 +1,412 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.Dto.ImportRowErrorDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductImportResultDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import com.prathamesh.ShoppingBackend.util.CsvReader;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk product import from CSV or NDJSON, in the same columns the catalog export writes.
+ * A row with an id updates that product and a row without one inserts a new product, so an edited export
+ * can be imported back. Every row is parsed and validated, ids included, before anything is written; valid
+ * rows are then persisted in JDBC batches of {@link #BATCH_SIZE}, new ids drawn from the pooled product
+ * sequence. Images are not part of the import and are attached per product afterwards.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("1000000");
+    private static final Set<String> COLUMNS = Set.of(
+            "id", "productName", "brand", "desc", "category", "releaseDate", "available", "quantity", "price");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final HotStockFront hotStock;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRows;
+
+    public ProductImportService(ObjectMapper objectMapper, ProductService productService, HotStockFront hotStock,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.import.max-rows:100000}") int maxRows) {
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.hotStock = hotStock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Imports every row, or nothing if any row is invalid, unless {@code skipInvalid} is set,
+     * in which case valid rows are imported and the rest reported.
+     */
+    public ProductImportResultDTO importProducts(ExportFormat format, InputStream in, boolean skipInvalid) throws IOException {
+        long start = System.currentTimeMillis();
+        Parsed parsed = format == ExportFormat.CSV ? parseCsv(in) : parseNdjson(in);
+        checkExistingIds(parsed);
+
+        List<Integer> ids = new ArrayList<>();
+        if (!parsed.rows.isEmpty() && (parsed.invalidRows == 0 || skipInvalid)) {
+            ids = persist(parsed.rows);
+        }
+        logger.info("Imported {} of {} products ({} invalid) in {} ms",
+                ids.size(), parsed.received, parsed.invalidRows, System.currentTimeMillis() - start);
+        return new ProductImportResultDTO(parsed.received, parsed.invalidRows, ids.size(), ids,
+                parsed.errors, parsed.errorCount > parsed.errors.size());
+    }
+
+    // Rows may only update products that exist; ids are never assigned by an import
+    private void checkExistingIds(Parsed parsed) {
+        List<Integer> requested = parsed.rows.stream().map(Row::id).filter(id -> id != null).toList();
+        if (requested.isEmpty()) {
+            return;
+        }
+        Set<Integer> existing = new HashSet<>();
+        for (int from = 0; from < requested.size(); from += BATCH_SIZE) {
+            List<Integer> chunk = requested.subList(from, Math.min(from + BATCH_SIZE, requested.size()));
+            existing.addAll(entityManager.createQuery("SELECT p.id FROM Product p WHERE p.id IN :ids", Integer.class)
+                    .setParameter("ids", chunk)
+                    .getResultList());
+        }
+        parsed.rows.removeIf(row -> {
+            if (row.id() == null || existing.contains(row.id())) {
+                return false;
+            }
+            parsed.reject(row.number(), "id", "No product with id " + row.id());
+            parsed.invalidRows++;
+            return true;
+        });
+    }
+
+    private List<Integer> persist(List<Row> rows) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> ids = new ArrayList<>(rows.size());
+            List<ProductSummaryDTO> inserted = new ArrayList<>();
+            List<Integer> updated = new ArrayList<>();
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                List<Row> chunk = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+                Map<Integer, Product> targets = loadTargets(chunk);
+                for (Row row : chunk) {
+                    Product product = row.product();
+                    if (row.id() == null) {
+                        entityManager.persist(product);
+                        // New rows have no images yet, so the summary is known without reading it back
+                        inserted.add(new ProductSummaryDTO(product.getId(), product.getProductName(), product.getBrand(),
+                                product.getCategory(), product.getPrice(), product.isAvailable(), product.getQuantity(),
+                                product.getReleaseDate(), null));
+                    } else {
+                        copyFields(product, targets.get(row.id()));
+                        updated.add(row.id());
+                    }
+                    ids.add(row.id() == null ? product.getId() : row.id());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            }
+            productService.indexAfterCommit(inserted);
+            if (!updated.isEmpty()) {
+                // Quantities were replaced, so units leased into memory no longer exist
+                AfterCommit.run(() -> updated.forEach(hotStock::discard));
+                updated.forEach(productService::invalidateProduct);
+                productService.reindexAfterCommit(updated);
+            }
+            return ids;
+        });
+    }
+
+    private Map<Integer, Product> loadTargets(List<Row> chunk) {
+        List<Integer> ids = chunk.stream().map(Row::id).filter(id -> id != null).toList();
+        Map<Integer, Product> targets = new HashMap<>();
+        if (!ids.isEmpty()) {
+            entityManager.createQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .forEach(product -> targets.put(product.getId(), product));
+        }
+        return targets;
+    }
+
+    // Same fields as a product update; images are left alone
+    private static void copyFields(Product from, Product to) {
+        to.setProductName(from.getProductName());
+        to.setBrand(from.getBrand());
+        to.setDesc(from.getDesc());
+        to.setCategory(from.getCategory());
+        to.setPrice(from.getPrice());
+        to.setQuantity(from.getQuantity());
+        to.setAvailable(from.isAvailable());
+        to.setReleaseDate(from.getReleaseDate());
+    }
+
+    private Parsed parseCsv(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        for (String column : header) {
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown column: " + column);
+            }
+        }
+        if (!header.contains("productName")) {
+            throw new IllegalArgumentException("CSV header must include productName");
+        }
+
+        Parsed parsed = new Parsed();
+        List<String> record;
+        int row = 0;
+        while ((record = reader.next()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            row++;
+            parsed.checkLimit(row, maxRows);
+            if (record.size() != header.size()) {
+                parsed.rejectRow(row, "Expected " + header.size() + " fields but found " + record.size());
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = record.get(i);
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            parsed.accept(row, values);
+        }
+        return parsed;
+    }
+
+    private Parsed parseNdjson(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Parsed parsed = new Parsed();
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            parsed.checkLimit(row, maxRows);
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                parsed.rejectRow(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                parsed.rejectRow(row, "Expected a JSON object");
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            boolean valid = true;
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                if (!COLUMNS.contains(field.getKey())) {
+                    parsed.reject(row, field.getKey(), "Unknown field");
+                    valid = false;
+                } else if (field.getValue().isContainerNode()) {
+                    parsed.reject(row, field.getKey(), "Must be a scalar value");
+                    valid = false;
+                } else if (!field.getValue().isNull()) {
+                    values.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            if (valid) {
+                parsed.accept(row, values);
+            } else {
+                parsed.invalidRows++;
+            }
+        }
+        return parsed;
+    }
+
+    /** A valid row: the product it describes and, for an update, the id of the product to change. */
+    private record Row(int number, Integer id, Product product) {
+    }
+
+    /** Rows that passed validation plus the errors of those that didn't. */
+    private static final class Parsed {
+        final List<Row> rows = new ArrayList<>();
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        final Set<Integer> seenIds = new HashSet<>();
+        int received;
+        int invalidRows;
+        int errorCount;
+
+        void checkLimit(int row, int maxRows) {
+            received = row;
+            if (row > maxRows) {
+                throw new IllegalArgumentException("Import is limited to " + maxRows + " rows");
+            }
+        }
+
+        void rejectRow(int row, String message) {
+            reject(row, null, message);
+            invalidRows++;
+        }
+
+        void reject(int row, String field, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDTO(row, field, message));
+            }
+        }
+
+        void accept(int row, Map<String, String> values) {
+            int errorsBefore = errorCount;
+            Integer id = id(row, values.get("id"));
+            Product product = new Product();
+            product.setProductName(text(row, values, "productName", true));
+            product.setBrand(text(row, values, "brand", true));
+            product.setCategory(text(row, values, "category", true));
+            product.setDesc(text(row, values, "desc", false));
+            product.setPrice(price(row, values.get("price")));
+            product.setQuantity(quantity(row, values.get("quantity")));
+            product.setReleaseDate(releaseDate(row, values.get("releaseDate")));
+            product.setAvailable(available(row, values.get("available"), product.getQuantity()));
+            if (errorCount == errorsBefore) {
+                rows.add(new Row(row, id, product));
+            } else {
+                invalidRows++;
+            }
+        }
+
+        private Integer id(int row, String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                int id = Integer.parseInt(value.trim());
+                if (id <= 0) {
+                    reject(row, "id", "Must be positive");
+                } else if (!seenIds.add(id)) {
+                    reject(row, "id", "Product " + id + " appears more than once");
+                }
+                return id;
+            } catch (NumberFormatException e) {
+                reject(row, "id", "Not an integer: " + value);
+                return null;
+            }
+        }
+
+        private String text(int row, Map<String, String> values, String field, boolean required) {
+            String value = values.get(field);
+            value = value == null ? null : value.trim();
+            if (value == null || value.isEmpty()) {
+                if (required) {
+                    reject(row, field, "Required");
+                }
+                return null;
+            }
+            if (value.length() > MAX_TEXT_LENGTH) {
+                reject(row, field, "Must be at most " + MAX_TEXT_LENGTH + " characters");
+            }
+            return value;
+        }
+
+        private BigDecimal price(int row, String value) {
+            if (value == null) {
+                reject(row, "price", "Required");
+                return null;
+            }
+            try {
+                BigDecimal price = new BigDecimal(value.trim());
+                if (price.signum() <= 0 || price.compareTo(MAX_PRICE) >= 0) {
+                    reject(row, "price", "Must be greater than 0 and less than " + MAX_PRICE);
+                } else if (price.stripTrailingZeros().scale() > 2) {
+                    reject(row, "price", "Must have at most 2 decimal places");
+                }
+                return price;
+            } catch (NumberFormatException e) {
+                reject(row, "price", "Not a number: " + value);
+                return null;
+            }
+        }
+
+        private int quantity(int row, String value) {
+            if (value == null) {
+                reject(row, "quantity", "Required");
+                return 0;
+            }
+            try {
+                int quantity = Integer.parseInt(value.trim());
+                if (quantity < 0) {
+                    reject(row, "quantity", "Must not be negative");
+                }
+                return quantity;
+            } catch (NumberFormatException e) {
+                reject(row, "quantity", "Not an integer: " + value);
+                return 0;
+            }
+        }
+
+        private Date releaseDate(int row, String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            try {
+                if (trimmed.length() == 10) {
+                    return Date.from(LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant());
+                }
+                return Date.from(Instant.parse(trimmed));
+            } catch (DateTimeParseException e) {
+                reject(row, "releaseDate", "Expected yyyy-MM-dd or an ISO-8601 instant");
+                return null;
+            }
+        }
+
+        private boolean available(int row, String value, int quantity) {
+            if (value == null) {
+                return quantity > 0;
+            }
+            String trimmed = value.trim();
+            if (trimmed.equalsIgnoreCase("true")) return true;
+            if (trimmed.equalsIgnoreCase("false")) return false;
+            reject(row, "available", "Expected true or false");
+            return false;
+        }
+    }
+}
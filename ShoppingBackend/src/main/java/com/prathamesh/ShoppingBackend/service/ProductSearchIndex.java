@@ -0,0 +1,359 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.repository.ProductRepoCustom.SortField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, brand and category.
+ * Queries are answered without touching the database: each query token matches exact terms,
+ * then terms it is a prefix of, and only when neither exists, terms within one or two edits.
+ * Documents are ranked with BM25F over the per-field term frequencies.
+ */
+@Service
+public class ProductSearchIndex {
+
+    public enum Field {
+        NAME(3.0),
+        BRAND(2.0),
+        CATEGORY(1.5);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+
+        public static Set<Field> fromParam(String searchField) {
+            if (searchField == null || searchField.isEmpty() || searchField.equalsIgnoreCase("all")) {
+                return EnumSet.allOf(Field.class);
+            }
+            return switch (searchField) {
+                case "productName", "name" -> EnumSet.of(NAME);
+                case "brand" -> EnumSet.of(BRAND);
+                case "category" -> EnumSet.of(CATEGORY);
+                default -> throw new IllegalArgumentException("Unsupported search field: " + searchField);
+            };
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH = 500;
+
+    private final ProductRepo productRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // While a rebuild runs: the latest write per product id, null for a removal, replayed onto the new index
+    private Map<Integer, ProductSummaryDTO> rebuildWrites;
+
+    public ProductSearchIndex(ProductRepo productRepo) {
+        this.productRepo = productRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        recordWrites(true);
+        Index fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            recordWrites(false);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Writes committed while the batches were being read may be missing from them
+            rebuildWrites.forEach((id, summary) -> {
+                fresh.remove(id);
+                if (summary != null) {
+                    fresh.add(summary);
+                }
+            });
+            rebuildWrites = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built: {} products, {} terms in {} ms",
+                fresh.docs.size(), fresh.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    private Index load() {
+        Index fresh = new Index();
+        Integer afterId = null;
+        List<ProductSummaryDTO> batch;
+        do {
+            batch = productRepo.findSummaries(SortField.ID, false, null, afterId, REBUILD_BATCH);
+            for (ProductSummaryDTO summary : batch) {
+                fresh.add(summary);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        return fresh;
+    }
+
+    private void recordWrites(boolean on) {
+        lock.writeLock().lock();
+        try {
+            rebuildWrites = on ? new HashMap<>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(ProductSummaryDTO summary) {
+        lock.writeLock().lock();
+        try {
+            index.remove(summary.getId());
+            index.add(summary);
+            if (rebuildWrites != null) {
+                rebuildWrites.put(summary.getId(), summary);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+            if (rebuildWrites != null) {
+                rebuildWrites.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSummaryDTO> search(String query, Set<Field> fields, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            if (current.docs.isEmpty()) {
+                return List.of();
+            }
+            double[] avgLength = current.averageFieldLengths();
+
+            Map<Integer, Double> scores = new HashMap<>();
+            Map<Integer, Integer> matchedTokens = new HashMap<>();
+            for (String token : tokens) {
+                // A document scores a token by its best expansion so prefixes don't double count
+                Map<Integer, Double> best = new HashMap<>();
+                for (Map.Entry<String, Double> expansion : current.expand(token).entrySet()) {
+                    Map<Integer, int[]> posting = current.postings.get(expansion.getKey());
+                    double idf = Math.log(1 + (current.docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Integer, int[]> entry : posting.entrySet()) {
+                        Doc doc = current.docs.get(entry.getKey());
+                        double score = expansion.getValue() * bm25f(entry.getValue(), doc, fields, avgLength, idf);
+                        if (score > 0) {
+                            best.merge(entry.getKey(), score, Math::max);
+                        }
+                    }
+                }
+                best.forEach((id, score) -> {
+                    scores.merge(id, score, Double::sum);
+                    matchedTokens.merge(id, 1, Integer::sum);
+                });
+            }
+
+            // Prefer documents matching every token; fall back to any match
+            List<Integer> candidates = new ArrayList<>();
+            matchedTokens.forEach((id, count) -> {
+                if (count == tokens.size()) candidates.add(id);
+            });
+            if (candidates.isEmpty()) {
+                candidates.addAll(scores.keySet());
+            }
+
+            candidates.sort(Comparator.<Integer>comparingDouble(scores::get).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+            List<ProductSummaryDTO> results = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (int i = 0; i < candidates.size() && i < limit; i++) {
+                results.add(current.docs.get(candidates.get(i)).summary);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double bm25f(int[] termFreqs, Doc doc, Set<Field> fields, double[] avgLength, double idf) {
+        double tf = 0;
+        for (Field field : fields) {
+            int f = field.ordinal();
+            if (termFreqs[f] == 0) continue;
+            double norm = 1 - B + B * (avgLength[f] == 0 ? 1 : doc.fieldLengths[f] / avgLength[f]);
+            tf += field.weight * termFreqs[f] / norm;
+        }
+        return tf == 0 ? 0 : idf * tf * (K1 + 1) / (tf + K1);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /** Optimal string alignment distance, giving up once it exceeds {@code max}. */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    private static final class Doc {
+        final ProductSummaryDTO summary;
+        final Map<String, int[]> termFreqs;
+        final int[] fieldLengths;
+
+        Doc(ProductSummaryDTO summary, Map<String, int[]> termFreqs, int[] fieldLengths) {
+            this.summary = summary;
+            this.termFreqs = termFreqs;
+            this.fieldLengths = fieldLengths;
+        }
+    }
+
+    /** Mutable index state; guarded by the enclosing lock once published. */
+    private static final class Index {
+        final NavigableMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+        final Map<Integer, Doc> docs = new HashMap<>();
+        final long[] totalFieldLength = new long[Field.values().length];
+
+        void add(ProductSummaryDTO summary) {
+            Map<String, int[]> termFreqs = new HashMap<>();
+            int[] fieldLengths = new int[Field.values().length];
+            String[] values = {summary.getProductName(), summary.getBrand(), summary.getCategory()};
+            for (Field field : Field.values()) {
+                List<String> tokens = tokenize(values[field.ordinal()]);
+                fieldLengths[field.ordinal()] = tokens.size();
+                totalFieldLength[field.ordinal()] += tokens.size();
+                for (String token : tokens) {
+                    termFreqs.computeIfAbsent(token, t -> new int[Field.values().length])[field.ordinal()]++;
+                }
+            }
+            termFreqs.forEach((term, freqs) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(summary.getId(), freqs));
+            docs.put(summary.getId(), new Doc(summary, termFreqs, fieldLengths));
+        }
+
+        void remove(int id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (Field field : Field.values()) {
+                totalFieldLength[field.ordinal()] -= doc.fieldLengths[field.ordinal()];
+            }
+            for (String term : doc.termFreqs.keySet()) {
+                Map<Integer, int[]> posting = postings.get(term);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        double[] averageFieldLengths() {
+            double[] avg = new double[totalFieldLength.length];
+            for (int i = 0; i < avg.length; i++) {
+                avg[i] = (double) totalFieldLength[i] / docs.size();
+            }
+            return avg;
+        }
+
+        /** Maps each vocabulary term a query token should match to the weight of that match. */
+        Map<String, Double> expand(String token) {
+            Map<String, Double> expansions = new HashMap<>();
+            if (postings.containsKey(token)) {
+                expansions.put(token, 1.0);
+            }
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                    if (expansions.size() >= MAX_EXPANSIONS) break;
+                    expansions.put(term, PREFIX_WEIGHT);
+                }
+            }
+            if (expansions.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+                int maxEdits = token.length() >= 8 ? 2 : 1;
+                for (String term : postings.keySet()) {
+                    if (editDistance(token, term, maxEdits) <= maxEdits) {
+                        expansions.put(term, FUZZY_WEIGHT);
+                        if (expansions.size() >= MAX_EXPANSIONS) break;
+                    }
+                }
+            }
+            return expansions;
+        }
+    }
+}
@@ -1,51 +1,263 @@
 package com.prathamesh.ShoppingBackend.service;
 
+import com.prathamesh.ShoppingBackend.Dto.CursorPageDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductBrowseDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
 import com.prathamesh.ShoppingBackend.Exception.ResourceNotFoundException;
 import com.prathamesh.ShoppingBackend.model.Product;
 import com.prathamesh.ShoppingBackend.model.ProductImage;
 import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.repository.ProductRepoCustom.SortField;
 import com.prathamesh.ShoppingBackend.repository.ProductImageRepository;
 import com.prathamesh.ShoppingBackend.repository.CartItemRepo;
+import com.prathamesh.ShoppingBackend.util.AfterCommit;
+import com.prathamesh.ShoppingBackend.util.CursorCodec;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional
 public class ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+
     private final ProductRepo productRepo;
     private final ProductImageRepository productImageRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+    private final HotStockFront hotStock;
+    private final Cache productCache;
+
+    // Bumped on every invalidation so a read that raced a write doesn't cache what it loaded
+    private final AtomicLong cacheGeneration = new AtomicLong();
 
     @Autowired
     private CartItemRepo cartItemRepo; // Added for handling cart item deletion
 
     private static final long MAX_FILE_SIZE = 20 * 1024 * 1024; // 20MB
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int REFRESH_BATCH = 500;
 
-    public ProductService(ProductRepo productRepo, ProductImageRepository productImageRepository) {
+    public ProductService(ProductRepo productRepo, ProductImageRepository productImageRepository,
+                          ImageDerivativeService imageDerivativeService, ProductSearchIndex searchIndex,
+                          ProductFacetIndex facetIndex, HotStockFront hotStock, CacheManager cacheManager) {
         this.productRepo = productRepo;
         this.productImageRepository = productImageRepository;
+        this.imageDerivativeService = imageDerivativeService;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.hotStock = hotStock;
+        this.productCache = cacheManager.getCache("products");
     }
 
     public List<Product> getAllProducts() {
         return productRepo.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductSummaryDTO> getProductPage(String sort, String direction, String cursor, Integer limit) {
+        SortField sortField = parseSortField(sort);
+        boolean descending = parseDirection(direction);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Object afterValue = null;
+        Integer afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorCodec.decode(cursor, 4);
+            if (!sortField.name().equals(parts[0]) || descending != "desc".equals(parts[1])) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            afterValue = parseSortValue(sortField, parts[2]);
+            afterId = Integer.valueOf(parts[3]);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<ProductSummaryDTO> rows = productRepo.findSummaries(sortField, descending, afterValue, afterId, pageSize + 1);
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            ProductSummaryDTO last = rows.get(pageSize - 1);
+            next = CursorCodec.encode(sortField.name(), descending ? "desc" : "asc",
+                    formatSortValue(sortField, last), String.valueOf(last.getId()));
+        }
+        return new CursorPageDTO<>(rows, next, pageSize);
+    }
+
+    /**
+     * Cached read of a product and its image headers. The returned instance is a detached copy
+     * shared between callers and must not be modified or passed back to the repository.
+     */
+    @Transactional(readOnly = true)
     public Product getProductById(int id) {
-        return productRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Product cached = productCache.get(id, Product.class);
+        if (cached != null) {
+            return cached;
+        }
+        List<Product> loaded = getProductsByIds(List.of(id));
+        if (loaded.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return loaded.get(0);
+    }
+
+    /** Serves cached products and loads all misses together; unknown ids are skipped. */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByIds(Collection<Integer> ids) {
+        Map<Integer, Product> found = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Product cached = productCache.get(id, Product.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            long generation = cacheGeneration.get();
+            Map<Integer, Product> loaded = loadDetached(misses);
+            boolean cacheable = generation == cacheGeneration.get();
+            loaded.forEach((id, product) -> {
+                if (cacheable) productCache.put(id, product);
+                found.put(id, product);
+            });
+        }
+
+        List<Product> result = new ArrayList<>(found.size());
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Product product = found.get(id);
+            if (product != null) result.add(product);
+        }
+        return result;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductBrowseDTO browseProducts(ProductFacetIndex.Filter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Integer afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            afterId = Integer.valueOf(CursorCodec.decode(cursor, 1)[0]);
+        }
+        return facetIndex.browse(filter, afterId, pageSize);
     }
-    
+
+    /** Re-reads the product summary after commit and hands it to the in-memory search and facet indexes. */
+    private void reindexAfterCommit(int productId) {
+        AfterCommit.run(() -> {
+            try {
+                List<ProductSummaryDTO> rows = productRepo.findSummariesByIds(List.of(productId));
+                if (rows.isEmpty()) {
+                    searchIndex.remove(productId);
+                    facetIndex.remove(productId);
+                } else {
+                    searchIndex.index(rows.get(0));
+                    facetIndex.index(rows.get(0));
+                }
+            } catch (Exception e) {
+                logger.error("Failed to reindex product {}", productId, e);
+            }
+        });
+    }
+
+    /** Adds freshly inserted products to the search and facet indexes once the current transaction commits. */
+    public void indexAfterCommit(List<ProductSummaryDTO> summaries) {
+        AfterCommit.run(() -> {
+            for (ProductSummaryDTO summary : summaries) {
+                searchIndex.index(summary);
+                facetIndex.index(summary);
+            }
+        });
+    }
+
+    /** Re-reads changed products into the search and facet indexes once the current transaction commits. */
+    public void reindexAfterCommit(Collection<Integer> productIds) {
+        List<Integer> ids = List.copyOf(productIds);
+        AfterCommit.run(() -> {
+            try {
+                for (int from = 0; from < ids.size(); from += REFRESH_BATCH) {
+                    for (ProductSummaryDTO row : productRepo.findSummariesByIds(ids.subList(from, Math.min(from + REFRESH_BATCH, ids.size())))) {
+                        searchIndex.index(row);
+                        facetIndex.index(row);
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Failed to reindex {} products", ids.size(), e);
+            }
+        });
+    }
+
+    /** Evicts and reindexes products whose rows changed outside this service, such as stock reservations. */
+    @Transactional(readOnly = true)
+    public void refreshProducts(Collection<Integer> productIds) {
+        List<Integer> ids = List.copyOf(productIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + REFRESH_BATCH, ids.size()));
+            for (ProductSummaryDTO row : productRepo.findSummariesByIds(chunk)) {
+                searchIndex.index(row);
+                facetIndex.index(row);
+            }
+            chunk.forEach(this::invalidateProduct);
+        }
+    }
+
+    /** Drops the cached copy of a product once the current transaction commits. */
+    public void invalidateProduct(int productId) {
+        AfterCommit.run(() -> {
+            cacheGeneration.incrementAndGet();
+            productCache.evict(productId);
+        });
+    }
+
+    // Copies scalar columns and image headers only, so cached entries never hold image bytes
+    private Map<Integer, Product> loadDetached(List<Integer> ids) {
+        Map<Integer, Product> products = new HashMap<>();
+        for (Product p : productRepo.findAllById(ids)) {
+            products.put(p.getId(), new Product(p.getId(), p.getProductName(), p.getBrand(), p.getDesc(),
+                    p.getCategory(), p.getReleaseDate(), p.isAvailable(), p.getQuantity(), p.getPrice(),
+                    new ArrayList<>(), null, null));
+        }
+        for (Object[] row : productImageRepository.findImageHeadersByProductIds(products.keySet())) {
+            Product product = products.get((Integer) row[1]);
+            ProductImage image = new ProductImage();
+            image.setId((Integer) row[0]);
+            image.setImageName((String) row[2]);
+            image.setImageType((String) row[3]);
+            image.setContentLength((Long) row[4]);
+            image.setContentHash((String) row[5]);
+            image.setProduct(product);
+            product.getImages().add(image);
+        }
+        return products;
+    }
+
 
     @Transactional
     public Product saveProduct(Product product, List<MultipartFile> imageFiles) throws IOException {
         Product savedProduct = productRepo.save(product);
+        List<Integer> savedImageIds = new ArrayList<>();
 
         if (imageFiles != null && !imageFiles.isEmpty()) {
             for (MultipartFile file : imageFiles) {
@@ -65,10 +277,13 @@ public class ProductService {
                 image.setImageData(file.getBytes());
                 image.setProduct(savedProduct);
 
-                productImageRepository.save(image);
+                savedImageIds.add(productImageRepository.save(image).getId());
             }
         }
 
+        imageDerivativeService.scheduleDerivatives(savedImageIds);
+        reindexAfterCommit(savedProduct.getId());
+        invalidateProduct(savedProduct.getId());
         return savedProduct;
     }
 
@@ -87,6 +302,7 @@ public class ProductService {
         existingProduct.setReleaseDate(product.getReleaseDate());
         
         Product updatedProduct = productRepo.save(existingProduct);
+        List<Integer> savedImageIds = new ArrayList<>();
 
             if (imageFiles != null && !imageFiles.isEmpty()) {
                 boolean hasValidImages = imageFiles.stream()
@@ -112,25 +328,66 @@ public class ProductService {
                         image.setImageData(file.getBytes());
                         image.setProduct(updatedProduct);
 
-                        productImageRepository.save(image);
+                        savedImageIds.add(productImageRepository.save(image).getId());
                     }
                 }
             }
 
+        imageDerivativeService.scheduleDerivatives(savedImageIds);
+        // The submitted quantity replaces the row's, so units leased into memory no longer exist
+        AfterCommit.run(() -> hotStock.discard(updatedProduct.getId()));
+        reindexAfterCommit(updatedProduct.getId());
+        invalidateProduct(updatedProduct.getId());
         return updatedProduct;
     }
 
     @Transactional
     public void deleteProduct(int id) {
-        Product product = getProductById(id);
+        Product product = productRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         cartItemRepo.deleteByProductId(id); // Delete associated cart items
         productRepo.delete(product);
+        AfterCommit.run(() -> hotStock.discard(id));
+        reindexAfterCommit(id);
+        invalidateProduct(id);
     }
 
-    public List<Product> searchProduct(String searchField, String searchQuery) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSummaryDTO> searchProduct(String searchField, String searchQuery, Integer limit) {
         if (searchQuery == null || searchQuery.isEmpty()) {
             throw new IllegalArgumentException("Search query must not be empty");
         }
-        return productRepo.searchProduct(searchQuery);
+        int maxResults = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return searchIndex.search(searchQuery, ProductSearchIndex.Field.fromParam(searchField), maxResults);
+    }
+
+    private SortField parseSortField(String sort) {
+        if (sort == null || sort.isEmpty() || sort.equals("id")) return SortField.ID;
+        if (sort.equals("price")) return SortField.PRICE;
+        if (sort.equals("releaseDate")) return SortField.RELEASE_DATE;
+        throw new IllegalArgumentException("Unsupported sort field: " + sort);
+    }
+
+    private boolean parseDirection(String direction) {
+        if (direction == null || direction.isEmpty() || direction.equalsIgnoreCase("asc")) return false;
+        if (direction.equalsIgnoreCase("desc")) return true;
+        throw new IllegalArgumentException("Unsupported sort direction: " + direction);
+    }
+
+    private Object parseSortValue(SortField sortField, String value) {
+        if (value == null) return null;
+        return switch (sortField) {
+            case PRICE -> new BigDecimal(value);
+            case RELEASE_DATE -> new Date(Long.parseLong(value));
+            case ID -> null;
+        };
+    }
+
+    private String formatSortValue(SortField sortField, ProductSummaryDTO row) {
+        return switch (sortField) {
+            case PRICE -> row.getPrice() == null ? null : row.getPrice().toPlainString();
+            case RELEASE_DATE -> row.getReleaseDate() == null ? null : String.valueOf(row.getReleaseDate().getTime());
+            case ID -> String.valueOf(row.getId());
+        };
     }
 }
\ No newline at end of file
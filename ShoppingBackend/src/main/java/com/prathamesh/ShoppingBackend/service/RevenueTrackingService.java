@@ -1,5 +1,7 @@
 package com.prathamesh.ShoppingBackend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.prathamesh.ShoppingBackend.repository.OrderRepo;
@@ -12,12 +14,38 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
-public class RevenueTrackingService {
+public class RevenueTrackingService implements OrderEventSubscriber {
     
     private static final Logger logger = LoggerFactory.getLogger(RevenueTrackingService.class);
     
     @Autowired
     private OrderRepo orderRepo;
+
+    private final Counter bookedRevenue;
+    private final Counter reversedRevenue;
+
+    public RevenueTrackingService(MeterRegistry meterRegistry) {
+        this.bookedRevenue = Counter.builder("orders.revenue.booked").baseUnit("INR").register(meterRegistry);
+        this.reversedRevenue = Counter.builder("orders.revenue.reversed").baseUnit("INR").register(meterRegistry);
+    }
+
+    /**
+     * Books revenue for new orders and reverses it for cancellations, from outbox events rather than
+     * on the request thread. Redelivered events are counted again, so the counters are approximate.
+     */
+    @Override
+    public void onOrderEvent(long eventId, OrderEvent event) {
+        if (event.totalAmount() == null) {
+            return;
+        }
+        double amount = event.totalAmount().doubleValue();
+        if (event.type() == OrderEvent.Type.CREATED) {
+            bookedRevenue.increment(amount);
+        } else if ("CANCELLED".equals(event.toStatus())) {
+            reversedRevenue.increment(amount);
+            logger.info("Order {} cancelled, revenue reversed: ₹{}", event.orderId(), amount);
+        }
+    }
     
     /**
      * Get comprehensive revenue breakdown
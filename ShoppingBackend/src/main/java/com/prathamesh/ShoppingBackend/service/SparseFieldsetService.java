@@ -0,0 +1,41 @@
+package com.prathamesh.ShoppingBackend.service;
+
+import com.prathamesh.ShoppingBackend.Exception.ResourceNotFoundException;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo;
+import com.prathamesh.ShoppingBackend.repository.SparseFieldsetRepo.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backs the {@code fields=} query parameter on read endpoints.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SparseFieldsetService {
+
+    private final SparseFieldsetRepo sparseFieldsetRepo;
+
+    public SparseFieldsetService(SparseFieldsetRepo sparseFieldsetRepo) {
+        this.sparseFieldsetRepo = sparseFieldsetRepo;
+    }
+
+    public List<Map<String, Object>> findAll(Resource resource, String fields) {
+        return sparseFieldsetRepo.findFields(resource, resource.parseFields(fields), null, null);
+    }
+
+    public List<Map<String, Object>> findBy(Resource resource, String fields, String attribute, Object value) {
+        return sparseFieldsetRepo.findFields(resource, resource.parseFields(fields), attribute, value);
+    }
+
+    public Map<String, Object> findById(Resource resource, Object id, String fields) {
+        List<Map<String, Object>> rows = findBy(resource, fields, "id", id);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException(resource.name().charAt(0) + resource.name().substring(1).toLowerCase()
+                    + " not found with id: " + id);
+        }
+        return rows.get(0);
+    }
+}
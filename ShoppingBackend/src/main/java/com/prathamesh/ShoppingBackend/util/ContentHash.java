@@ -0,0 +1,25 @@
+package com.prathamesh.ShoppingBackend.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ContentHash {
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static Long lengthOf(byte[] data) {
+        return data == null ? null : (long) data.length;
+    }
+
+    public static String sha256Hex(byte[] data) {
+        if (data == null) return null;
+        return HexFormat.of().formatHex(newDigest().digest(data));
+    }
+}
@@ -0,0 +1,40 @@
+package com.prathamesh.ShoppingBackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions into opaque, URL-safe cursor strings.
+ */
+public class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_TOKEN = "~";
+
+    public static String encode(String... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) raw.append(SEPARATOR);
+            raw.append(parts[i] == null ? NULL_TOKEN : parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        for (int i = 0; i < parts.length; i++) {
+            if (NULL_TOKEN.equals(parts[i])) parts[i] = null;
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,31 @@
+package com.prathamesh.ShoppingBackend.util;
+
+/**
+ * Line-per-record formats shared by the exports and the product import.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    public static ExportFormat fromParam(String format) {
+        if (format == null || format.isEmpty()) {
+            return NDJSON;
+        }
+        return switch (format.toLowerCase()) {
+            case "ndjson", "jsonl" -> NDJSON;
+            case "csv" -> CSV;
+            default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.prathamesh.ShoppingBackend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one record per line as NDJSON objects or RFC 4180 CSV rows with a header, the counterpart of
+ * {@link CsvReader}. Values are given in column order; strings, booleans and numbers are written as such
+ * and null leaves the field empty. Writes to a stream it does not own; closing only flushes.
+ */
+public abstract class RecordWriter implements Closeable {
+
+    protected final String[] columns;
+
+    private RecordWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    public static RecordWriter open(ExportFormat format, String[] columns, ObjectMapper objectMapper,
+                                    OutputStream out) throws IOException {
+        return format == ExportFormat.CSV ? new Csv(columns, out) : new Ndjson(columns, objectMapper, out);
+    }
+
+    public abstract void write(Object... values) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private static final class Ndjson extends RecordWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(String[] columns, ObjectMapper objectMapper, OutputStream out) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class Csv extends RecordWriter {
+        private final Writer writer;
+
+        Csv(String[] columns, OutputStream out) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value != null) {
+                    writeField(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /** RFC 4180 quoting: only when the value contains a delimiter, quote or line break. */
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
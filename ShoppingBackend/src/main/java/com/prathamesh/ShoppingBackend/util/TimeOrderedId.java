@@ -0,0 +1,18 @@
+package com.prathamesh.ShoppingBackend.util;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id as generated in the application by {@link TimeOrderedIdGenerator}: no database round trip,
+ * so inserts batch, and no coordination between backend nodes beyond each having its own node id.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,76 @@
+package com.prathamesh.ShoppingBackend.util;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 53-bit ids, so they survive a round trip through a JavaScript number: 41 bits of milliseconds since
+ * {@link #EPOCH_MILLIS} (about 69 years), 5 bits of node id and 7 bits of sequence within the millisecond.
+ * Ids from one node only ever increase, and ids from different nodes sort roughly by creation time.
+ * A node that runs out of sequence, or whose clock steps back, keeps counting from its last millisecond
+ * instead of waiting. The node id, app.ids.node-id, must differ between nodes sharing a database.
+ * <p>
+ * The last issued value is held in memory only: if a node restarts while its clock is behind the last id
+ * it issued, it can issue that id again and the insert fails on the primary key. Keep node clocks stepping
+ * forward (NTP slewing rather than stepping) or wait out the difference before restarting a node.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 2025-01-01T00:00:00Z, where the time component starts. */
+    public static final long EPOCH_MILLIS = 1735689600000L;
+
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Last issued (millisecond << SEQUENCE_BITS | sequence), shared so no two rows of any table get the same id
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /** Hibernate setting carrying the node id, passed through as spring.jpa.properties.app.ids.node-id. */
+    public static final String NODE_ID_SETTING = "app.ids.node-id";
+
+    private final long node;
+
+    /** Hibernate instantiates {@link TimeOrderedId} generators itself; the node id comes from its settings. */
+    public TimeOrderedIdGenerator(TimeOrderedId annotation, Member member, CustomIdGeneratorCreationContext context) {
+        this(ConfigurationHelper.getInt(NODE_ID_SETTING,
+                context.getServiceRegistry().requireService(ConfigurationService.class).getSettings(), 0));
+    }
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("app.ids.node-id must be between 0 and " + MAX_NODE + ", was " + nodeId);
+        }
+        this.node = nodeId;
+    }
+
+    public long nextId() {
+        long nowState = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state = LAST.updateAndGet(prev -> Math.max(prev + 1, nowState));
+        long millis = state >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (state & SEQUENCE_MASK);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
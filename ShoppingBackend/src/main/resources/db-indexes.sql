@@ -44,3 +44,15 @@ CREATE INDEX IF NOT EXISTS idx_product_image_product_id ON product_image(product
 -- Composite indexes for common queries
 CREATE INDEX IF NOT EXISTS idx_product_category_available ON product(category, available);
 CREATE INDEX IF NOT EXISTS idx_orders_user_status ON orders(user_id, status);
+
+-- Keyset pagination indexes for the product listing (sort key + id tie-breaker)
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON product(price, id);
+CREATE INDEX IF NOT EXISTS idx_product_release_date_id ON product(release_date, id);
+
+-- Keyset pagination of a user's order history, with and without a status filter
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_id ON orders(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_status_created_id ON orders(user_id, status, created_at DESC, id DESC);
+
+-- Admin order search: keyset order plus the filtered columns, so id pages and counts are index-only scans
+CREATE INDEX IF NOT EXISTS idx_orders_created_id_covering ON orders(created_at DESC, id DESC) INCLUDE (status, total_amount, user_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_id_covering ON orders(status, created_at DESC, id DESC) INCLUDE (total_amount, user_id);
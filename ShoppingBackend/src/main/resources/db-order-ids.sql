@@ -0,0 +1,32 @@
+-- Moves orders, order_item and cart_item to application-generated ids (TimeOrderedIdGenerator) (PostgreSQL)
+-- Run once, after deploying the version that generates the ids.
+-- Existing rows keep their ids: they are far below the smallest time-ordered id, so nothing collides and
+-- ordering by id still follows creation order. Only the database-side generators are removed, so nothing
+-- can hand out an id outside the scheme.
+
+BEGIN;
+
+LOCK TABLE orders, order_item, cart_item IN SHARE ROW EXCLUSIVE MODE;
+
+-- Time-ordered ids start at (ms since 2025-01-01) << 12; existing ids must all sit below the first one issued
+DO $$
+DECLARE
+    first_new bigint := (floor(extract(epoch FROM now()) * 1000)::bigint - 1735689600000) << 12;
+BEGIN
+    IF (SELECT MAX(id) FROM orders) >= first_new OR (SELECT MAX(id) FROM order_item) >= first_new
+       OR (SELECT MAX(id) FROM cart_item) >= first_new THEN
+        RAISE EXCEPTION 'Existing ids overlap the time-ordered range starting at %', first_new;
+    END IF;
+END $$;
+
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS orders_id_seq;
+
+ALTER TABLE order_item ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS order_item_seq;
+
+ALTER TABLE cart_item ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cart_item ALTER COLUMN id DROP DEFAULT;
+
+COMMIT;
@@ -0,0 +1,61 @@
+-- Range-partitions the orders table by created_at month (PostgreSQL)
+-- Run once, in a maintenance window, after the application has created the schema.
+-- From then on OrderArchiveService creates upcoming monthly partitions and drops old ones emptied by archiving.
+
+BEGIN;
+
+LOCK TABLE orders IN ACCESS EXCLUSIVE MODE;
+
+-- Unique keys on a partitioned table must include created_at, so order_item can no longer reference orders(id)
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE contype = 'f' AND conrelid = 'order_item'::regclass AND confrelid = 'orders'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE order_item DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER TABLE orders_unpartitioned ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders_unpartitioned ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS orders_id_seq;
+UPDATE orders_unpartitioned SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+
+CREATE TABLE orders (LIKE orders_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (created_at);
+
+-- No id default: the application generates order ids (TimeOrderedIdGenerator)
+ALTER TABLE orders ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE orders ADD PRIMARY KEY (id, created_at);
+
+-- One partition per month from the oldest order through three months ahead, and a default for anything else
+DO $$
+DECLARE
+    m_start date := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_unpartitioned), now()));
+BEGIN
+    WHILE m_start <= date_trunc('month', now()) + interval '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       'orders_p' || to_char(m_start, 'YYYYMM'), m_start, m_start + interval '1 month');
+        m_start := m_start + interval '1 month';
+    END LOOP;
+END $$;
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+INSERT INTO orders SELECT * FROM orders_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+-- Indexes from db-indexes.sql, recreated on the parent so every partition gets them
+CREATE INDEX IF NOT EXISTS idx_orders_user_id ON orders(user_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
+CREATE INDEX IF NOT EXISTS idx_orders_user_status ON orders(user_id, status);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_id ON orders(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_status_created_id ON orders(user_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_created_id_covering ON orders(created_at DESC, id DESC) INCLUDE (status, total_amount, user_id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_id_covering ON orders(status, created_at DESC, id DESC) INCLUDE (total_amount, user_id);
+
+COMMIT;
+
+ANALYZE orders;
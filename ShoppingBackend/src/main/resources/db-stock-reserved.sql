@@ -0,0 +1,13 @@
+-- Records which orders took their items out of stock, so cancelling an order only gives back what it reserved (PostgreSQL)
+-- Hibernate adds orders.stock_reserved as false on existing rows, which is right for orders placed before checkout
+-- reserved stock. Orders placed since then did reserve it: run once with the time that version went live, e.g.
+--   psql -v reservations_since="'2025-06-01 00:00'" -f db-stock-reserved.sql
+
+BEGIN;
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS stock_reserved boolean NOT NULL DEFAULT false;
+
+UPDATE orders SET stock_reserved = true
+WHERE created_at >= :reservations_since AND NOT stock_reserved;
+
+COMMIT;
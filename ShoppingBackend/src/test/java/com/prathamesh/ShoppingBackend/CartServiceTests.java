@@ -0,0 +1,52 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.Dto.CartDTO;
+import com.prathamesh.ShoppingBackend.Dto.CartOperation;
+import com.prathamesh.ShoppingBackend.model.User;
+import com.prathamesh.ShoppingBackend.repository.UserRepo;
+import com.prathamesh.ShoppingBackend.service.CartService;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.cart.write-behind.enabled=false")
+@Transactional
+class CartServiceTests {
+
+	@Autowired
+	private CartService cartService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private UserRepo userRepo;
+
+	@Test
+	void batchCanRemoveAndAddBackTheSameProduct() throws Exception {
+		User user = new User();
+		user.setUserName("cart-batch-" + System.nanoTime());
+		user.setEmail(user.getUserName() + "@example.com");
+		user.setPassword("secret");
+		user.setRole(User.Role.USER);
+		user = userRepo.save(user);
+
+		int productId = productService.saveProduct(
+				TestProducts.product("Batch product", new BigDecimal("10.00"), 10), null).getId();
+
+		cartService.addToCart(user, productId, 3);
+		CartDTO cart = cartService.applyOperations(user, List.of(
+				new CartOperation(CartOperation.Type.REMOVE, null, productId, null),
+				new CartOperation(CartOperation.Type.ADD, null, productId, 1)));
+
+		assertEquals(1, cart.getItems().size());
+		assertEquals(productId, cart.getItems().get(0).getProduct().getId());
+		assertEquals(1, cart.getItems().get(0).getQuantity());
+		assertEquals(10.0, cart.getTotalPrice());
+	}
+}
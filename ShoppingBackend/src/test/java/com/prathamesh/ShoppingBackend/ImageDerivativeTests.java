@@ -0,0 +1,58 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.model.ProductImage;
+import com.prathamesh.ShoppingBackend.repository.ProductImageRepository;
+import com.prathamesh.ShoppingBackend.repository.ProductImageVariantRepo;
+import com.prathamesh.ShoppingBackend.service.ImageDerivativeService;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ImageDerivativeTests {
+
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private ProductImageRepository productImageRepository;
+	@Autowired
+	private ProductImageVariantRepo variantRepo;
+	@Autowired
+	private ImageDerivativeService imageDerivativeService;
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void undecodableImageIsMarkedAndLeftOutOfTheBackfill() throws Exception {
+		Product product = productService.saveProduct(TestProducts.product("Broken image product", BigDecimal.ONE, 1),
+				List.of(new MockMultipartFile("images", "broken.png", "image/png",
+						"not an image".getBytes(StandardCharsets.UTF_8))));
+		int imageId = productImageRepository.findByProductId(product.getId()).get(0).getId();
+		assertTrue(variantRepo.findImageIdsWithoutVariants().contains(imageId));
+
+		imageDerivativeService.generateDerivatives(imageId);
+		entityManager.clear();
+
+		ProductImage image = productImageRepository.findById(imageId).orElseThrow();
+		assertTrue(image.isDerivativesFailed());
+		assertFalse(variantRepo.findImageIdsWithoutVariants().contains(imageId));
+
+		// New data is worth another attempt
+		image.setImageData(new byte[]{1, 2, 3});
+		productImageRepository.saveAndFlush(image);
+		assertTrue(variantRepo.findImageIdsWithoutVariants().contains(imageId));
+	}
+}
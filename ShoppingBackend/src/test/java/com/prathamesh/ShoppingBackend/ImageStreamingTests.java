@@ -0,0 +1,50 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.ProductImageRepository;
+import com.prathamesh.ShoppingBackend.service.ImageService;
+import com.prathamesh.ShoppingBackend.service.ImageService.Source;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@SpringBootTest
+@Transactional
+class ImageStreamingTests {
+
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private ProductImageRepository productImageRepository;
+	@Autowired
+	private ImageService imageService;
+
+	@Test
+	void streamsWholeImagesAndRangesAcrossChunks() throws Exception {
+		// Several chunks long, and not a multiple of the chunk size
+		byte[] data = new byte[700_001];
+		new Random(42).nextBytes(data);
+		Product product = productService.saveProduct(TestProducts.product("Streamed image product", BigDecimal.ONE, 1),
+				List.of(new MockMultipartFile("images", "large.png", "image/png", data)));
+		int imageId = productImageRepository.findByProductId(product.getId()).get(0).getId();
+
+		ByteArrayOutputStream whole = new ByteArrayOutputStream();
+		imageService.streamImage(Source.PRODUCT, imageId, 0, data.length, whole);
+		assertArrayEquals(data, whole.toByteArray());
+
+		ByteArrayOutputStream range = new ByteArrayOutputStream();
+		imageService.streamImage(Source.PRODUCT, imageId, 250_000, 300_000, range);
+		assertArrayEquals(Arrays.copyOfRange(data, 250_000, 550_000), range.toByteArray());
+	}
+}
@@ -0,0 +1,175 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.Exception.InsufficientStockException;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.service.HotStockFront;
+import com.prathamesh.ShoppingBackend.service.InventoryService;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not @Transactional: leases are taken in transactions of their own, so products must be committed first.
+// The scheduled rebalance is pushed out of the way; tests make products hot by calling it themselves.
+@SpringBootTest(properties = {
+		"app.ids.node-id=" + InventoryServiceTests.NODE,
+		"app.inventory.hot-threshold=" + InventoryServiceTests.HOT_THRESHOLD,
+		"app.inventory.lease-size=" + InventoryServiceTests.LEASE_SIZE,
+		"app.inventory.stripes=2",
+		"app.inventory.hot-window-ms=3600000"
+})
+class InventoryServiceTests {
+
+	static final int NODE = 7;
+	static final int HOT_THRESHOLD = 4;
+	static final int LEASE_SIZE = 10;
+
+	@Autowired
+	private InventoryService inventoryService;
+	@Autowired
+	private HotStockFront hotStock;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private ProductRepo productRepo;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Integer> created = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		hotStock.drainAll();
+		jdbcTemplate.update("DELETE FROM stock_lease_use WHERE node_id = ?", NODE);
+		jdbcTemplate.update("DELETE FROM stock_lease WHERE node_id = ?", NODE);
+		productRepo.deleteAllById(created);
+	}
+
+	@Test
+	void shortfallLeavesRowAndMemoryStockUnchanged() throws Exception {
+		int hot = product(100);
+		int cold = product(1);
+		makeHot(hot);
+		int hotRow = quantity(hot);
+
+		// The hot product is taken from memory first, then the cold row falls short
+		assertThrows(InsufficientStockException.class, () -> transactionTemplate.executeWithoutResult(
+				status -> inventoryService.reserve(Map.of(hot, 2, cold, 5))));
+
+		assertEquals(hotRow, quantity(hot));
+		assertEquals(1, quantity(cold));
+		assertEquals(LEASE_SIZE, hotStock.remaining(hot));
+	}
+
+	@Test
+	void shortfallGivesBackToTheRowWhenTheProductCooledMeanwhile() throws Exception {
+		int hot = product(100);
+		int cold = product(1);
+		makeHot(hot);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			assertThrows(InsufficientStockException.class,
+					() -> inventoryService.reserve(Map.of(hot, 2, cold, 5)));
+			// A window with no takes cools the product down: its lease goes back while two units are still out
+			hotStock.rebalance();
+			hotStock.rebalance();
+			assertEquals(0, hotStock.remaining(hot));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(100, quantity(hot));
+		assertEquals(1, quantity(cold));
+	}
+
+	@Test
+	void rollbackGivesHotStockBack() throws Exception {
+		int hot = product(100);
+		makeHot(hot);
+		int hotRow = quantity(hot);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			inventoryService.reserve(Map.of(hot, 3));
+			assertEquals(LEASE_SIZE - 3, hotStock.remaining(hot));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(hotRow, quantity(hot));
+		assertEquals(LEASE_SIZE, hotStock.remaining(hot));
+	}
+
+	@Test
+	void reserveEachRejectsOnlyTheShortOrder() {
+		int shared = product(5);
+		int other = product(1);
+
+		List<InsufficientStockException> failures = transactionTemplate.execute(status -> inventoryService.reserveEach(
+				List.of(Map.of(shared, 3), Map.of(shared, 3), Map.of(other, 1))));
+
+		assertNull(failures.get(0));
+		assertNotNull(failures.get(1));
+		assertNull(failures.get(2));
+		assertEquals(2, quantity(shared));
+		assertEquals(0, quantity(other));
+	}
+
+	@Test
+	void recoveryReturnsWhatWasLeasedButNotUsed() {
+		int product = product(10);
+		// As a node that stopped holding 4 leased units, one of them used by an order
+		jdbcTemplate.update("INSERT INTO stock_lease (node_id, product_id, quantity) VALUES (?, ?, ?)", NODE, product, 4);
+		jdbcTemplate.update("INSERT INTO stock_lease_use (id, node_id, product_id, quantity) VALUES (?, ?, ?, ?)",
+				System.nanoTime(), NODE, product, 1);
+
+		hotStock.recover();
+
+		assertEquals(13, quantity(product));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM stock_lease WHERE node_id = ?", Integer.class, NODE));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM stock_lease_use WHERE node_id = ?", Integer.class, NODE));
+	}
+
+	private int product(int quantity) {
+		try {
+			int id = productService.saveProduct(
+					TestProducts.product("Inventory product " + quantity, BigDecimal.ONE, quantity), null).getId();
+			created.add(id);
+			return id;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private int quantity(int productId) {
+		return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE id = ?", Integer.class, productId);
+	}
+
+	// Enough takes in one window make the product hot; its first lease is then taken in the background
+	private void makeHot(int productId) throws InterruptedException {
+		for (int i = 0; i < HOT_THRESHOLD; i++) {
+			assertEquals(0, hotStock.take(productId, 1));
+		}
+		hotStock.rebalance();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (hotStock.remaining(productId) < LEASE_SIZE) {
+			assertTrue(System.currentTimeMillis() < deadline, "No stock leased for product " + productId);
+			Thread.sleep(10);
+		}
+	}
+}
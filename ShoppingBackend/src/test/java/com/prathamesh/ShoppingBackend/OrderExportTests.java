@@ -0,0 +1,137 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.service.OrderExportService;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class OrderExportTests {
+
+	// A day no other data lives on, with ids far from generated ones
+	private static final LocalDate DAY = LocalDate.of(2001, 1, 1);
+	private static final long BASE = 7_000_000_000_000L;
+
+	@Autowired
+	private OrderExportService orderExportService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void insertOrders() {
+		liveOrder(BASE + 1, "10:00", BASE + 11, BASE + 12);
+		archivedOrder(BASE + 3, "10:02", "[{\"id\": " + (BASE + 31) + ", \"productId\": 1, \"quantity\": 1, \"price\": 2.50},"
+				+ " {\"id\": " + (BASE + 32) + ", \"productId\": 2, \"quantity\": 3, \"price\": 1.00}]");
+		// Archived before item ids were kept: lines fall back to the position in the array
+		archivedOrder(BASE + 4, "10:03", "[{\"productId\": 1, \"quantity\": 1, \"price\": 2.50},"
+				+ " {\"productId\": 2, \"quantity\": 1, \"price\": 1.00}]");
+		liveOrder(BASE + 2, "10:05", BASE + 21, BASE + 22, BASE + 23);
+		liveOrder(BASE + 5, "10:06");
+		// More lines than one page holds, so a page boundary falls inside this order
+		long[] many = new long[1200];
+		for (int i = 0; i < many.length; i++) {
+			many[i] = BASE + 1000 + i;
+		}
+		liveOrder(BASE + 6, "10:07", many);
+	}
+
+	@Test
+	void exportsLiveAndArchivedLinesInCursorOrder() throws Exception {
+		List<JsonNode> rows = export(null);
+
+		List<String> expected = new ArrayList<>(List.of(
+				key(BASE + 1, BASE + 11), key(BASE + 1, BASE + 12),
+				key(BASE + 3, BASE + 31), key(BASE + 3, BASE + 32),
+				key(BASE + 4, 1), key(BASE + 4, 2),
+				key(BASE + 2, BASE + 21), key(BASE + 2, BASE + 22), key(BASE + 2, BASE + 23),
+				key(BASE + 5, 0)));
+		for (int i = 0; i < 1200; i++) {
+			expected.add(key(BASE + 6, BASE + 1000 + i));
+		}
+		assertEquals(expected, rows.stream().map(this::key).toList());
+	}
+
+	@Test
+	void resumesAfterAnyCursor() throws Exception {
+		List<JsonNode> rows = export(null);
+		for (int i : new int[]{0, 3, 5, 8, 9, 500, rows.size() - 1}) {
+			List<JsonNode> rest = export(rows.get(i).get("cursor").asText());
+			assertEquals(rows.subList(i + 1, rows.size()), rest, "after row " + i);
+		}
+	}
+
+	@Test
+	void cursorSurvivesArchivingItsOrder() throws Exception {
+		List<JsonNode> rows = export(null);
+		String afterFirstLine = rows.get(6).get("cursor").asText();
+		assertEquals(key(BASE + 2, BASE + 21), key(rows.get(6)));
+
+		// The same move OrderArchiveService makes, items keeping their ids
+		jdbcTemplate.update("DELETE FROM order_item WHERE order_id = ?", BASE + 2);
+		jdbcTemplate.update("DELETE FROM orders WHERE id = ?", BASE + 2);
+		archivedOrder(BASE + 2, "10:05", "[{\"id\": " + (BASE + 21) + ", \"productId\": 1, \"quantity\": 1, \"price\": 2.50},"
+				+ " {\"id\": " + (BASE + 22) + ", \"productId\": 1, \"quantity\": 1, \"price\": 2.50},"
+				+ " {\"id\": " + (BASE + 23) + ", \"productId\": 1, \"quantity\": 1, \"price\": 2.50}]");
+
+		List<String> rest = export(afterFirstLine).stream().map(this::key).toList();
+		assertEquals(rows.subList(7, rows.size()).stream().map(this::key).toList(), rest);
+	}
+
+	private List<JsonNode> export(String after) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		orderExportService.export(ExportFormat.NDJSON, DAY, DAY,
+				after == null ? null : OrderExportService.Position.decode(after), out);
+		List<JsonNode> rows = new ArrayList<>();
+		for (String line : out.toString().split("\n")) {
+			if (!line.isEmpty()) {
+				rows.add(objectMapper.readTree(line));
+			}
+		}
+		return rows;
+	}
+
+	private void liveOrder(long id, String time, long... itemIds) {
+		jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, created_at, status, stock_reserved) "
+				+ "VALUES (?, NULL, 10.00, ?, 'DELIVERED', false)", id, at(time));
+		for (long itemId : itemIds) {
+			jdbcTemplate.update("INSERT INTO order_item (id, order_id, product_id, quantity, price) "
+					+ "VALUES (?, ?, 1, 1, 2.50)", itemId, id);
+		}
+	}
+
+	private void archivedOrder(long id, String time, String items) {
+		jdbcTemplate.update("INSERT INTO orders_archive (id, total_amount, status, created_at, archived_at, items) "
+				+ "VALUES (?, 10.00, 'DELIVERED', ?, now(), CAST(? AS jsonb))", id, at(time), items);
+	}
+
+	private static Timestamp at(String time) {
+		return Timestamp.valueOf(LocalDateTime.of(DAY, LocalTime.parse(time)));
+	}
+
+	private String key(JsonNode row) {
+		return key(row.get("orderId").asLong(), row.get("line").asLong());
+	}
+
+	private static String key(long orderId, long line) {
+		return orderId + "/" + line;
+	}
+}
@@ -0,0 +1,109 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.Dto.OrderItemDTO;
+import com.prathamesh.ShoppingBackend.Dto.OrderRequest;
+import com.prathamesh.ShoppingBackend.model.Address;
+import com.prathamesh.ShoppingBackend.model.User;
+import com.prathamesh.ShoppingBackend.repository.AddressRepo;
+import com.prathamesh.ShoppingBackend.repository.UserRepo;
+import com.prathamesh.ShoppingBackend.service.OrderIntakeService;
+import com.prathamesh.ShoppingBackend.service.OrderService;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Order placement throughput with and without group commit, against the configured database.
+ * Run with: mvn test -Dtest=OrderGroupCommitBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "app.orders.group-commit.enabled=true")
+class OrderGroupCommitBenchmark {
+
+	private static final int CALLERS = 64;
+	private static final int ORDERS = 4000;
+	private static final int PRODUCTS = 50;
+
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private OrderIntakeService orderIntakeService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private UserRepo userRepo;
+	@Autowired
+	private AddressRepo addressRepo;
+
+	@Test
+	void compareDirectAndGroupCommit() throws Exception {
+		User user = userRepo.findAll().stream()
+				.filter(u -> u.getRole() == User.Role.USER)
+				.findFirst().orElseThrow();
+		Address address = new Address();
+		address.setStreet("1 Benchmark Road");
+		address.setCity("Pune");
+		address.setState("MH");
+		address.setZipCode("411001");
+		address.setCountry("IN");
+		address.setType(Address.AddressType.values()[0]);
+		address.setUser(user);
+		long addressId = addressRepo.save(address).getId();
+
+		List<Integer> productIds = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			productIds.add(productService.saveProduct(
+					TestProducts.product("Benchmark product " + i, new BigDecimal("10.00"), 1_000_000), null).getId());
+		}
+
+		List<OrderRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 2 * ORDERS; i++) {
+			OrderItemDTO item = new OrderItemDTO();
+			item.setProductId((long) productIds.get(i % PRODUCTS));
+			item.setQuantity(1);
+			item.setPrice(BigDecimal.TEN);
+			OrderRequest request = new OrderRequest();
+			request.setUserId(user.getId());
+			request.setAddressId(addressId);
+			request.setItems(List.of(item));
+			request.setTotalAmount(10.0);
+			requests.add(request);
+		}
+
+		run("warm-up", requests.subList(0, CALLERS * 4), orderService::createOrder);
+		double direct = run("direct", requests.subList(0, ORDERS), orderService::createOrder);
+		double grouped = run("group commit", requests.subList(ORDERS, 2 * ORDERS), orderIntakeService::placeOrder);
+		System.out.printf("Group commit: %.2fx the throughput of direct placement%n", grouped / direct);
+	}
+
+	private double run(String name, List<OrderRequest> requests, Consumer<OrderRequest> place) throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		try {
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>();
+			for (OrderRequest request : requests) {
+				futures.add(callers.submit(() -> place.accept(request)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			double perSecond = requests.size() / seconds;
+			System.out.printf("%-12s %d orders from %d callers in %.2f s: %.0f orders/s%n",
+					name, requests.size(), CALLERS, seconds, perSecond);
+			return perSecond;
+		} finally {
+			callers.shutdown();
+		}
+	}
+}
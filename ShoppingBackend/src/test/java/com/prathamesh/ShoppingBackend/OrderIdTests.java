@@ -0,0 +1,51 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.model.OrderItem;
+import com.prathamesh.ShoppingBackend.model.Orders;
+import com.prathamesh.ShoppingBackend.repository.OrderRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.ids.node-id=5")
+@Transactional
+class OrderIdTests {
+
+	@Autowired
+	private OrderRepo orderRepo;
+
+	@Test
+	void ordersAndItemsGetIncreasingIdsCarryingTheNodeId() {
+		Orders first = orderRepo.saveAndFlush(order());
+		Orders second = orderRepo.saveAndFlush(order());
+
+		assertNotNull(first.getId());
+		assertTrue(second.getId() > first.getId());
+		long itemId = second.getItems().get(0).getId();
+		assertTrue(itemId > first.getId());
+		// Bits 7-11 hold the node id
+		assertEquals(5, (second.getId() >>> 7) & 31);
+		assertEquals(5, (itemId >>> 7) & 31);
+	}
+
+	private Orders order() {
+		Orders order = new Orders();
+		order.setUserId(1L);
+		order.setStatus(Orders.OrderStatus.PENDING);
+		order.setTotalAmount(BigDecimal.TEN);
+		OrderItem item = new OrderItem();
+		item.setOrder(order);
+		item.setProductId(1L);
+		item.setQuantity(1);
+		item.setPrice(BigDecimal.TEN);
+		order.getItems().add(item);
+		return order;
+	}
+}
@@ -0,0 +1,50 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.service.ProductExportService;
+import com.prathamesh.ShoppingBackend.util.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class ProductExportTests {
+
+	@Autowired
+	private ProductExportService productExportService;
+	@Autowired
+	private ProductRepo productRepo;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void exportsEveryProductOnceInIdOrderAcrossPages() throws Exception {
+		// More than one page's worth
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < 1100; i++) {
+			products.add(TestProducts.product("Export product " + i, BigDecimal.ONE, 1));
+		}
+		productRepo.saveAllAndFlush(products);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		productExportService.export(ExportFormat.NDJSON, out);
+		List<Integer> exported = new ArrayList<>();
+		for (String line : out.toString().split("\n")) {
+			exported.add(objectMapper.readTree(line).get("id").asInt());
+		}
+
+		List<Integer> expected = productRepo.findAll().stream().map(Product::getId).sorted().toList();
+		assertEquals(expected, exported);
+	}
+}
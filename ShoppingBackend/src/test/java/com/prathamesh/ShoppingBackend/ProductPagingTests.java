@@ -0,0 +1,86 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.Dto.CursorPageDTO;
+import com.prathamesh.ShoppingBackend.Dto.ProductSummaryDTO;
+import com.prathamesh.ShoppingBackend.model.Product;
+import com.prathamesh.ShoppingBackend.repository.ProductRepo;
+import com.prathamesh.ShoppingBackend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class ProductPagingTests {
+
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private ProductRepo productRepo;
+
+	@Test
+	void pagesMatchTheFullOrderingForEverySortAndDirection() throws Exception {
+		// Equal prices and missing release dates exercise the id tie-breaker and the trailing null block
+		for (int i = 0; i < 12; i++) {
+			Product product = TestProducts.product("Paging product " + i,
+					new BigDecimal(i % 3 == 0 ? "5.00" : (i + 1) + ".00"), 1);
+			product.setReleaseDate(i % 4 == 0 ? null : new Date(1_700_000_000_000L + (i % 2) * 86_400_000L));
+			productService.saveProduct(product, null);
+		}
+		List<ProductSummaryDTO> all = productRepo.findSummariesByIds(
+				productRepo.findAll().stream().map(Product::getId).toList());
+
+		check(all, "id", "asc", null);
+		check(all, "id", "desc", null);
+		check(all, "price", "asc", ProductSummaryDTO::getPrice);
+		check(all, "price", "desc", ProductSummaryDTO::getPrice);
+		check(all, "releaseDate", "asc", ProductSummaryDTO::getReleaseDate);
+		check(all, "releaseDate", "desc", ProductSummaryDTO::getReleaseDate);
+	}
+
+	@Test
+	void cursorIsTiedToItsSortOrder() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			productService.saveProduct(TestProducts.product("Cursor product " + i, BigDecimal.ONE, 1), null);
+		}
+		String next = productService.getProductPage("price", "asc", null, 1).getNext();
+		assertThrows(IllegalArgumentException.class, () -> productService.getProductPage("price", "desc", next, 1));
+		assertThrows(IllegalArgumentException.class, () -> productService.getProductPage("id", "asc", next, 1));
+	}
+
+	private <T extends Comparable<? super T>> void check(List<ProductSummaryDTO> all, String sort, String direction,
+														 Function<ProductSummaryDTO, T> key) {
+		boolean descending = direction.equals("desc");
+		Comparator<ProductSummaryDTO> byId = Comparator.comparing(ProductSummaryDTO::getId);
+		Comparator<ProductSummaryDTO> order = key == null
+				? byId
+				: Comparator.comparing(key, Comparator.nullsLast(descending
+						? Comparator.<T>reverseOrder() : Comparator.<T>naturalOrder()))
+				.thenComparing(descending ? byId.reversed() : byId);
+		if (key == null && descending) {
+			order = byId.reversed();
+		}
+		List<Integer> expected = all.stream().sorted(order).map(ProductSummaryDTO::getId).toList();
+
+		List<Integer> paged = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPageDTO<ProductSummaryDTO> page = productService.getProductPage(sort, direction, cursor, 5);
+			page.getItems().forEach(item -> paged.add(item.getId()));
+			cursor = page.getNext();
+		} while (cursor != null);
+
+		assertEquals(expected, paged, sort + " " + direction);
+	}
+}
@@ -0,0 +1,29 @@
+package com.prathamesh.ShoppingBackend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityRulesTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	// With a valid CSRF token, so only the authorization rules can turn the request away
+	@Test
+	void productImportRequiresLogin() throws Exception {
+		mockMvc.perform(post("/api/products/import")
+						.with(csrf())
+						.contentType("text/csv")
+						.content("productName,brand,price\nX,B,1.00\n"))
+				.andExpect(status().isUnauthorized());
+	}
+}
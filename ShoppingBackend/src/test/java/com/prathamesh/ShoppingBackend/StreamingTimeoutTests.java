@@ -0,0 +1,47 @@
+package com.prathamesh.ShoppingBackend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.products.export.timeout=7m", "app.orders.export.timeout=3m"})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class StreamingTimeoutTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void eachExportGetsItsOwnTimeout() throws Exception {
+		MvcResult products = mockMvc.perform(get("/api/products/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertEquals(Duration.ofMinutes(7).toMillis(), products.getRequest().getAsyncContext().getTimeout());
+
+		MvcResult orders = mockMvc.perform(get("/api/orders/export").param("from", "2001-01-01").param("to", "2001-01-01"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertEquals(Duration.ofMinutes(3).toMillis(), orders.getRequest().getAsyncContext().getTimeout());
+	}
+
+	@Test
+	void badExportRequestIsRejectedWithItsReason() throws Exception {
+		mockMvc.perform(get("/api/orders/export").param("from", "2001-01-02").param("to", "2001-01-01"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("to must not be before from"));
+	}
+}
@@ -0,0 +1,23 @@
+package com.prathamesh.ShoppingBackend;
+
+import com.prathamesh.ShoppingBackend.model.Product;
+
+import java.math.BigDecimal;
+
+/** Unsaved products for tests: brand and category "Test", available. */
+final class TestProducts {
+
+	private TestProducts() {
+	}
+
+	static Product product(String name, BigDecimal price, int quantity) {
+		Product product = new Product();
+		product.setProductName(name);
+		product.setBrand("Test");
+		product.setCategory("Test");
+		product.setPrice(price);
+		product.setQuantity(quantity);
+		product.setAvailable(true);
+		return product;
+	}
+}
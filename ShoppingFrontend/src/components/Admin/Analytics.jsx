@@ -70,7 +70,7 @@ const Analytics = () => {
           const fullProduct = products.find(p => p.id === topProduct.productId);
           return {
             ...topProduct,
-            image: fullProduct?.images?.[0]?.imageData || null
+            image: fullProduct?.images?.[0]?.thumbnailUrl || null
           };
         });
       }
@@ -354,7 +354,7 @@ const Analytics = () => {
                       <div className="flex items-center">
                         {product.image && (
                           <img
-                            src={`data:image/jpeg;base64,${product.image}`}
+                            src={product.image}
                             alt={product.name}
                             className="w-10 h-10 rounded-full object-cover mr-3"
                           />
@@ -80,9 +80,7 @@ const CartItem = React.memo(
           <img
             className="w-full h-full object-cover transition-transform duration-300 group-hover:scale-110"
             src={
-              product.images?.[0]?.imageData && product.images[0]?.imageType
-                ? `data:${product.images[0].imageType};base64,${product.images[0].imageData}`
-                : "/images/placeholder.webp"
+              product.images?.[0]?.thumbnailUrl || "/images/placeholder.webp"
             }
             alt={product.productName || "Product image"}
             onError={(e) => (e.target.src = "/images/placeholder.webp")}
@@ -197,7 +195,7 @@ CartItem.propTypes = {
       price: PropTypes.number,
       images: PropTypes.arrayOf(
         PropTypes.shape({
-          imageData: PropTypes.string,
+          thumbnailUrl: PropTypes.string,
         })
       ),
       dealInfo: PropTypes.shape({
@@ -380,10 +380,7 @@ const OrderDetails = () => {
                   className="flex items-start gap-4 p-4 rounded-lg border border-gray-200 dark:border-gray-700 hover:shadow-md transition-shadow duration-200"
                 >
                   <img
-                    src={product?.images?.[0]?.imageData ? 
-                      `data:image/jpeg;base64,${product.images[0].imageData}` : 
-                      "/images/placeholder.webp"
-                    }
+                    src={product?.images?.[0]?.thumbnailUrl || "/images/placeholder.webp"}
                     alt={product?.productName || "Product"}
                     className="w-20 h-20 object-cover rounded-lg"
                     onError={(e) => {
@@ -402,10 +402,7 @@ const AllProducts = () => {
                 {product.images && product.images.length > 0 ? (
                   <img
                     src={
-                      product.images[0].imageUrl ||
-                      (product.images[0].imageData && product.images[0].imageType
-                        ? `data:${product.images[0].imageType};base64,${product.images[0].imageData}`
-                        : 'https://placehold.co/400x300?text=No+Image')
+                      product.images[0].cardUrl || 'https://placehold.co/400x300?text=No+Image'
                     }
                     alt={product.productName}
                     className="w-full h-48 object-cover"
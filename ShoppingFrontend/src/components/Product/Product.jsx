@@ -67,7 +67,7 @@ const Product = () => {
 
       const productData = await productResponse.json();
       setProduct(productData);
-      setMainImage(productData.images?.[0]?.imageData || "");
+      setMainImage(productData.images?.[0]?.detailUrl || "");
       
       // Set the regular price as default
       setDiscountedPrice(productData.price);
@@ -173,8 +173,8 @@ const Product = () => {
     }
   };
 
-  const getImageSrc = (imageData, imageType) => {
-    return imageData ? `data:${imageType};base64,${imageData}` : "/images/placeholder.webp";
+  const getImageSrc = (imageUrl) => {
+    return imageUrl || "/images/placeholder.webp";
   };
 
   if (loading) {
@@ -291,7 +291,7 @@ const Product = () => {
                 initial={{ opacity: 0 }}
                 animate={{ opacity: 1 }}
                 transition={{ duration: 0.3 }}
-                src={getImageSrc(mainImage, product.images?.[0]?.imageType)}
+                src={getImageSrc(mainImage)}
                 alt="Product"
                 className="w-full h-full object-cover"
                 onError={(e) => (e.target.src = "/images/placeholder.webp")}
@@ -343,10 +343,10 @@ const Product = () => {
                     className={`relative flex-shrink-0 w-20 h-20 rounded-lg overflow-hidden cursor-pointer ${
                       selectedImageIndex === index ? "ring-2 ring-blue-500" : ""
                     }`}
-                    onClick={() => handleImageChange(image.imageData, index)}
+                    onClick={() => handleImageChange(image.detailUrl, index)}
                   >
                     <img
-                      src={getImageSrc(image.imageData, image.imageType)}
+                      src={getImageSrc(image.thumbnailUrl)}
                       alt={`Thumbnail ${index + 1}`}
                       className="w-full h-full object-cover"
                     />
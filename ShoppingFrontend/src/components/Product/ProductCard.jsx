@@ -163,9 +163,9 @@ const ProductCard = memo(({ product, addToCart, isAuthenticated, discountedPrice
           <motion.img
             className="w-full h-full object-cover"
             src={
-              imageError || !product.images?.length || !product.images[0]?.imageData
+              imageError || !product.images?.[0]?.cardUrl
                 ? "/images/placeholder.webp"
-                : `data:${product.images[0].imageType};base64,${product.images[0].imageData}`
+                : product.images[0].cardUrl
             }
             alt={product.productName || "Product image"}
             loading="lazy"
@@ -72,7 +72,7 @@ const ProductForm = ({ product, onSubmit, onCancel, isSubmitting, isModal }) =>
     if (product?.images && product.images.length > 0) {
       const existingPreviews = product.images.map(img => ({
         id: img.id,
-        url: img.imageData && img.imageType ? `data:${img.imageType};base64,${img.imageData}` : null
+        url: img.imageUrl || null
       })).filter(img => img.url);
       setExistingImages(existingPreviews);
     }
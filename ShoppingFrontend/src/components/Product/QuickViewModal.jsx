@@ -25,8 +25,8 @@ const QuickViewModal = ({ product, isOpen, onClose, onAddToCart, isDarkMode }) =
 
   if (!product) return null;
 
-  const getImageSrc = (imageData, imageType) => {
-    return imageData ? `data:${imageType};base64,${imageData}` : "/images/placeholder.webp";
+  const getImageSrc = (imageUrl) => {
+    return imageUrl || "/images/placeholder.webp";
   };
 
   return (
@@ -64,7 +64,7 @@ const QuickViewModal = ({ product, isOpen, onClose, onAddToCart, isDarkMode }) =
                     initial={{ opacity: 0, scale: 0.95 }}
                     animate={{ opacity: 1, scale: 1 }}
                     transition={{ duration: 0.3 }}
-                    src={getImageSrc(product.images?.[selectedImage]?.imageData, product.images?.[selectedImage]?.imageType)}
+                    src={getImageSrc(product.images?.[selectedImage]?.detailUrl)}
                     alt={product.productName}
                     className="w-full h-full object-cover"
                   />
@@ -86,7 +86,7 @@ const QuickViewModal = ({ product, isOpen, onClose, onAddToCart, isDarkMode }) =
                         key={idx}
                         whileHover={{ scale: 1.1 }}
                         onClick={() => setSelectedImage(idx)}
-                        src={getImageSrc(img.imageData, img.imageType)}
+                        src={getImageSrc(img.thumbnailUrl)}
                         alt={`Thumbnail ${idx + 1}`}
                         className={`w-20 h-20 rounded-xl object-cover cursor-pointer transition-all ${
                           selectedImage === idx 
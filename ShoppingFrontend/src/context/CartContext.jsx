@@ -130,7 +130,7 @@ const CartProvider = ({ children }) => {
     }
   }, [isAuthenticated, token, hasRole, handleApiError, fetchCart]);
 
-  const removeFromCart = useCallback(async (productId) => {
+  const removeFromCart = useCallback(async (itemId) => {
     if (!isAuthenticated || !hasRole("USER")) {
       toast.error("You do not have permission to remove items from cart.");
       return;
@@ -140,7 +140,7 @@ const CartProvider = ({ children }) => {
 
     try {
       const response = await axios.delete(
-        `${API_URL}/cart/remove/${productId}`,
+        `${API_URL}/cart/remove/${itemId}`,
         {
           headers: {
             Authorization: `Bearer ${token}`,